@@ -17,6 +17,9 @@ const viewConfig = {
   uiViewClassName: 'RCTMapboxAnnotation',
   validAttributes: {
     coordinate: true,
+    coordinateAnimationDuration: true,
+    rasterize: true,
+    rasterizeKey: true,
   },
 };
 
@@ -29,7 +32,9 @@ const propTypes = {
     latitude: PropTypes.number.isRequired,
     longitude: PropTypes.number.isRequired,
   }).isRequired,
-  
+  coordinateAnimationDuration: PropTypes.number,
+  rasterize: PropTypes.bool,
+  rasterizeKey: PropTypes.string,
 };
 
 class MapboxAnnotation extends React.Component {
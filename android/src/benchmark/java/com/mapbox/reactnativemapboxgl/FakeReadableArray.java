@@ -0,0 +1,73 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A ReadableArray backed by a list, for running bridge code on the JVM. Numbers are read as
+ * doubles, like the values the bridge receives from JS.
+ */
+public class FakeReadableArray implements ReadableArray {
+
+    private final List<Object> _values = new ArrayList<>();
+
+    public FakeReadableArray(Object... values) {
+        for (Object value : values) {
+            push(value);
+        }
+    }
+
+    public FakeReadableArray push(Object value) {
+        _values.add(value);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return _values.size();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return _values.get(index) == null;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return (Boolean) _values.get(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return ((Number) _values.get(index)).doubleValue();
+    }
+
+    @Override
+    public int getInt(int index) {
+        return ((Number) _values.get(index)).intValue();
+    }
+
+    @Override
+    public String getString(int index) {
+        return (String) _values.get(index);
+    }
+
+    @Override
+    public ReadableArray getArray(int index) {
+        return (ReadableArray) _values.get(index);
+    }
+
+    @Override
+    public ReadableMap getMap(int index) {
+        return (ReadableMap) _values.get(index);
+    }
+
+    @Override
+    public ReadableType getType(int index) {
+        return FakeReadableMap.typeOf(_values.get(index));
+    }
+}
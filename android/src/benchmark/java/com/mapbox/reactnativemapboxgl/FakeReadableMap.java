@@ -0,0 +1,93 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A ReadableMap backed by a hash map, for running bridge code on the JVM.
+ */
+public class FakeReadableMap implements ReadableMap {
+
+    private final Map<String, Object> _values = new HashMap<>();
+
+    public FakeReadableMap put(String key, Object value) {
+        _values.put(key, value);
+        return this;
+    }
+
+    static ReadableType typeOf(Object value) {
+        if (value == null) { return ReadableType.Null; }
+        if (value instanceof Boolean) { return ReadableType.Boolean; }
+        if (value instanceof Number) { return ReadableType.Number; }
+        if (value instanceof String) { return ReadableType.String; }
+        if (value instanceof ReadableMap) { return ReadableType.Map; }
+        return ReadableType.Array;
+    }
+
+    @Override
+    public boolean hasKey(String name) {
+        return _values.containsKey(name);
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        return _values.get(name) == null;
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        return (Boolean) _values.get(name);
+    }
+
+    @Override
+    public double getDouble(String name) {
+        return ((Number) _values.get(name)).doubleValue();
+    }
+
+    @Override
+    public int getInt(String name) {
+        return ((Number) _values.get(name)).intValue();
+    }
+
+    @Override
+    public String getString(String name) {
+        return (String) _values.get(name);
+    }
+
+    @Override
+    public ReadableArray getArray(String name) {
+        return (ReadableArray) _values.get(name);
+    }
+
+    @Override
+    public ReadableMap getMap(String name) {
+        return (ReadableMap) _values.get(name);
+    }
+
+    @Override
+    public ReadableType getType(String name) {
+        return typeOf(_values.get(name));
+    }
+
+    @Override
+    public ReadableMapKeySetIterator keySetIterator() {
+        final Iterator<String> keys = _values.keySet().iterator();
+        return new ReadableMapKeySetIterator() {
+            @Override
+            public boolean hasNextKey() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public String nextKey() {
+                return keys.next();
+            }
+        };
+    }
+}
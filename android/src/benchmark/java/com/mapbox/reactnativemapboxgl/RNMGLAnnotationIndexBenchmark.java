@@ -0,0 +1,87 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the annotation index, querying a city-sized viewport and moving a thousand entries.
+ * Points are spread over a country-sized area, with some lines crossing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLAnnotationIndexBenchmark {
+
+    private static final int MOVED_COUNT = 1000;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int entryCount;
+
+    private String[] _ids;
+    private double[][] _bounds;
+    private RNMGLAnnotationIndex _index;
+    private final Random _random = new Random(42);
+    private int _nextMoved = 0;
+
+    private double[] randomBounds(Random random) {
+        double south = 44 + random.nextDouble() * 4;
+        double west = 5 + random.nextDouble() * 6;
+        if (random.nextInt(20) > 0) {
+            return new double[] { south, west, south, west };
+        }
+        return new double[] { south, west, south + random.nextDouble() * 0.5, west + random.nextDouble() * 0.5 };
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        _ids = new String[entryCount];
+        _bounds = new double[entryCount][];
+        for (int i = 0; i < entryCount; i++) {
+            _ids[i] = "annotation" + i;
+            _bounds[i] = randomBounds(random);
+        }
+        _index = build();
+    }
+
+    private RNMGLAnnotationIndex build() {
+        RNMGLAnnotationIndex index = new RNMGLAnnotationIndex();
+        for (int i = 0; i < entryCount; i++) {
+            index.put(_ids[i], _bounds[i]);
+        }
+        return index;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RNMGLAnnotationIndex insert() {
+        return build();
+    }
+
+    @Benchmark
+    public List<String> query() {
+        List<String> results = new ArrayList<>();
+        _index.query(45.4, 7.6, 45.5, 7.75, results);
+        return results;
+    }
+
+    @Benchmark
+    public void update() {
+        for (int i = 0; i < MOVED_COUNT; i++) {
+            int moved = _nextMoved;
+            _nextMoved = (_nextMoved + 1) % entryCount;
+            _index.put(_ids[moved], randomBounds(_random));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of line and polygon annotations sent from JS. Points need an icon from the SDK's
+ * IconFactory, which can't be created on the JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLAnnotationOptionsBenchmark {
+
+    @Param({ "100", "10000" })
+    public int vertexCount;
+
+    private ReadableMap _polyline;
+    private ReadableMap _polygon;
+
+    static FakeReadableArray nestedCoordinates(int count) {
+        FakeReadableArray coordinates = new FakeReadableArray();
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            coordinates.push(new FakeReadableArray(45 + Math.sin(angle), 7 + Math.cos(angle)));
+        }
+        return coordinates;
+    }
+
+    @Setup
+    public void setUp() {
+        _polyline = new FakeReadableMap()
+                .put("id", "line")
+                .put("type", "polyline")
+                .put("coordinates", nestedCoordinates(vertexCount))
+                .put("alpha", 0.5)
+                .put("strokeColor", "#ff0000")
+                .put("strokeWidth", 2);
+        _polygon = new FakeReadableMap()
+                .put("id", "polygon")
+                .put("type", "polygon")
+                .put("coordinates", nestedCoordinates(vertexCount))
+                .put("alpha", 0.5)
+                .put("fillColor", "#00ff00")
+                .put("strokeColor", "#ff0000");
+    }
+
+    @Benchmark
+    public RNMGLAnnotationOptions polyline() {
+        return RNMGLAnnotationOptionsFactory.annotationOptionsFromJS(_polyline, null);
+    }
+
+    @Benchmark
+    public RNMGLAnnotationOptions polygon() {
+        return RNMGLAnnotationOptionsFactory.annotationOptionsFromJS(_polygon, null);
+    }
+}
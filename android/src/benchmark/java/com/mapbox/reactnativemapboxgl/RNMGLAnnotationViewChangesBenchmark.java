@@ -0,0 +1,105 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One React update of a map's annotation views: some views are moved (removed and added again),
+ * some are unmounted and some are new. The queued changes are compared with the full set
+ * difference the map view used to compute after every child change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLAnnotationViewChangesBenchmark {
+
+    @Param({ "2000" })
+    public int viewCount;
+
+    @Param({ "100" })
+    public int changedCount;
+
+    private List<RNMGLAnnotationView> _mounted;
+    private List<RNMGLAnnotationView> _moved;
+    private List<RNMGLAnnotationView> _unmounted;
+    private List<RNMGLAnnotationView> _new;
+
+    @Setup
+    public void setUp() {
+        _mounted = new ArrayList<>(viewCount);
+        for (int i = 0; i < viewCount; i++) {
+            _mounted.add(new RNMGLAnnotationView(null));
+        }
+        _moved = new ArrayList<>(_mounted.subList(0, changedCount));
+        _unmounted = new ArrayList<>(_mounted.subList(changedCount, 2 * changedCount));
+        _new = new ArrayList<>(changedCount);
+        for (int i = 0; i < changedCount; i++) {
+            _new.add(new RNMGLAnnotationView(null));
+        }
+    }
+
+    @Benchmark
+    public int queuedChanges() {
+        RNMGLAnnotationViewChanges changes = new RNMGLAnnotationViewChanges();
+        for (RNMGLAnnotationView view : _moved) {
+            changes.removed(view);
+            changes.added(view);
+        }
+        for (RNMGLAnnotationView view : _unmounted) {
+            changes.removed(view);
+        }
+        for (RNMGLAnnotationView view : _new) {
+            changes.added(view);
+        }
+        return changes.getAdded().size() + changes.getRemoved().size();
+    }
+
+    @Benchmark
+    public int fullDifferencePerChange() {
+        Set<RNMGLAnnotationView> onMap = new HashSet<>(_mounted);
+        Set<RNMGLAnnotationView> children = new LinkedHashSet<>(_mounted);
+        int changed = 0;
+        for (RNMGLAnnotationView view : _moved) {
+            children.remove(view);
+            changed += reconcile(children, onMap);
+            children.add(view);
+            changed += reconcile(children, onMap);
+        }
+        for (RNMGLAnnotationView view : _unmounted) {
+            children.remove(view);
+            changed += reconcile(children, onMap);
+        }
+        for (RNMGLAnnotationView view : _new) {
+            children.add(view);
+            changed += reconcile(children, onMap);
+        }
+        return changed;
+    }
+
+    private static int reconcile(Set<RNMGLAnnotationView> children, Set<RNMGLAnnotationView> onMap) {
+        List<RNMGLAnnotationView> removed = new ArrayList<>();
+        for (RNMGLAnnotationView view : onMap) {
+            if (!children.contains(view)) { removed.add(view); }
+        }
+        List<RNMGLAnnotationView> added = new ArrayList<>();
+        for (RNMGLAnnotationView view : children) {
+            if (!onMap.contains(view)) { added.add(view); }
+        }
+        onMap.removeAll(removed);
+        onMap.addAll(added);
+        return removed.size() + added.size();
+    }
+}
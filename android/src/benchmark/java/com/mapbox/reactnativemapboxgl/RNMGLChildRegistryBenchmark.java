@@ -0,0 +1,66 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translation of every React child index of a map to a native index, with the registry and with
+ * the list scan the manager used before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLChildRegistryBenchmark {
+
+    @Param({ "2000" })
+    public int childCount;
+
+    private RNMGLChildRegistry _registry;
+    private List<View> _list;
+
+    @Setup
+    public void setUp() {
+        _registry = new RNMGLChildRegistry();
+        _list = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            // Mostly annotation views, with a few regular children in between
+            View child = i % 8 == 0 ? new View(null) : new RNMGLAnnotationView(null);
+            _registry.add(i, child);
+            _list.add(child);
+        }
+    }
+
+    @Benchmark
+    public int registry() {
+        int sum = 0;
+        for (int i = 0; i < childCount; i++) {
+            sum += _registry.nativeIndex(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int listScan() {
+        int sum = 0;
+        for (int i = 0; i < childCount; i++) {
+            int nativeIndex = i;
+            for (int j = 0; j < i; j++) {
+                if (RNMGLChildRegistry.isAnnotationView(_list.get(j))) { nativeIndex--; }
+            }
+            sum += nativeIndex;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,100 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.facebook.react.bridge.ReadableArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the coordinates of a large geometry sent as nested [lat, lng] arrays, and sent as a
+ * base64 string of little-endian doubles. The fake arrays are plain Java lists, so the nested
+ * results are a lower bound: on a device every element read is a call into the native bridge.
+ *
+ * android.util.Base64 only returns defaults on the JVM, and java.util.Base64 isn't in the Android
+ * SDK the benchmarks are compiled against, so the string is decoded by a plain table-driven
+ * decoder here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLCoordinateTransportBenchmark {
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    @Param({ "10000", "100000" })
+    public int vertexCount;
+
+    private ReadableArray _nested;
+    private String _encoded;
+
+    @Setup
+    public void setUp() {
+        _nested = RNMGLAnnotationOptionsBenchmark.nestedCoordinates(vertexCount);
+
+        ByteBuffer buffer = ByteBuffer.allocate(16 * vertexCount).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < vertexCount; i++) {
+            ReadableArray coordinate = _nested.getArray(i);
+            buffer.putDouble(coordinate.getDouble(0));
+            buffer.putDouble(coordinate.getDouble(1));
+        }
+        _encoded = encode(buffer.array());
+    }
+
+    @Benchmark
+    public double[] nested() {
+        return RNMGLAnnotationOptionsFactory.coordinatesFromJS(_nested);
+    }
+
+    @Benchmark
+    public double[] encoded() {
+        return RNMGLAnnotationOptionsFactory.coordinatesFromBytes(decode(_encoded));
+    }
+
+    private static String encode(byte[] bytes) {
+        StringBuilder result = new StringBuilder((bytes.length + 2) / 3 * 4);
+        for (int i = 0; i < bytes.length; i += 3) {
+            int remaining = Math.min(3, bytes.length - i);
+            int chunk = (bytes[i] & 0xff) << 16;
+            if (remaining > 1) { chunk |= (bytes[i + 1] & 0xff) << 8; }
+            if (remaining > 2) { chunk |= bytes[i + 2] & 0xff; }
+            result.append(ALPHABET[chunk >> 18 & 63]);
+            result.append(ALPHABET[chunk >> 12 & 63]);
+            result.append(remaining > 1 ? ALPHABET[chunk >> 6 & 63] : '=');
+            result.append(remaining > 2 ? ALPHABET[chunk & 63] : '=');
+        }
+        return result.toString();
+    }
+
+    private static byte[] decode(String encoded) {
+        int length = encoded.length();
+        int padding = length == 0 ? 0 : encoded.charAt(length - 1) != '=' ? 0 : encoded.charAt(length - 2) != '=' ? 1 : 2;
+        byte[] result = new byte[length / 4 * 3 - padding];
+        int j = 0;
+        for (int i = 0; i < length; i += 4) {
+            int chunk = VALUES[encoded.charAt(i)] << 18 | VALUES[encoded.charAt(i + 1)] << 12
+                    | VALUES[encoded.charAt(i + 2)] << 6 | VALUES[encoded.charAt(i + 3)];
+            result[j++] = (byte) (chunk >> 16);
+            if (j < result.length) { result[j++] = (byte) (chunk >> 8); }
+            if (j < result.length) { result[j++] = (byte) chunk; }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.Choreographer;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.mapbox.mapboxsdk.annotations.Marker;
+import com.mapbox.mapboxsdk.annotations.MarkerOptions;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One second of moving markers at 60 frames per second. JS either sends every position as it
+ * changes, one message per frame, or sends each move once and lets the animator interpolate. The
+ * bridge messages per second of both are printed with the results. The frames are driven here
+ * instead of by the Choreographer, and setting a position on a device also updates the map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RNMGLMarkerAnimationBenchmark {
+
+    private static final int FRAMES_PER_SECOND = 60;
+    private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / FRAMES_PER_SECOND;
+
+    private static final RNMGLMarkerAnimator.FrameScheduler DRIVEN_FRAMES = new RNMGLMarkerAnimator.FrameScheduler() {
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+        }
+    };
+
+    private static final RNMGLMarkerAnimator.Listener NO_LISTENER = new RNMGLMarkerAnimator.Listener() {
+        @Override
+        public void onMovesFinished() {
+        }
+    };
+
+    @Param({ "1000" })
+    public int markerCount;
+
+    private final Map<String, Marker> _markers = new HashMap<>();
+    private ReadableArray[] _tickMoves;
+    private ReadableArray _animatedMoves;
+    private RNMGLMarkerAnimator _animator;
+    private RNMGLMarkerAnimator _steadyAnimator;
+    private long _steadyFrameNanos;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < markerCount; i++) {
+            _markers.put("vehicle" + i, new MarkerOptions().position(start(i)).getMarker());
+        }
+
+        // Sent every frame: where each vehicle is at that frame
+        _tickMoves = new ReadableArray[FRAMES_PER_SECOND];
+        for (int frame = 0; frame < FRAMES_PER_SECOND; frame++) {
+            double t = (frame + 1) / (double) FRAMES_PER_SECOND;
+            FakeReadableArray moves = new FakeReadableArray();
+            for (int i = 0; i < markerCount; i++) {
+                LatLng start = start(i);
+                moves.push(new FakeReadableMap()
+                        .put("id", "vehicle" + i)
+                        .put("latitude", start.getLatitude() + 0.001 * t)
+                        .put("longitude", start.getLongitude() + 0.001 * t));
+            }
+            _tickMoves[frame] = moves;
+        }
+
+        // Sent once: where each vehicle will be in a second
+        FakeReadableArray moves = new FakeReadableArray();
+        for (int i = 0; i < markerCount; i++) {
+            LatLng start = start(i);
+            moves.push(new FakeReadableMap()
+                    .put("id", "vehicle" + i)
+                    .put("latitude", start.getLatitude() + 0.001)
+                    .put("longitude", start.getLongitude() + 0.001)
+                    .put("duration", 1000)
+                    .put("easing", "linear"));
+        }
+        _animatedMoves = moves;
+
+        _animator = new RNMGLMarkerAnimator(NO_LISTENER, DRIVEN_FRAMES);
+
+        // Moves that outlast the benchmark, for the cost of a frame on its own
+        _steadyAnimator = new RNMGLMarkerAnimator(NO_LISTENER, DRIVEN_FRAMES);
+        for (Marker marker : _markers.values()) {
+            _steadyAnimator.moveTo(marker, 46, 8, TimeUnit.DAYS.toMillis(1), RNMGLMarkerAnimator.EASING_LINEAR);
+        }
+        _steadyFrameNanos = System.nanoTime();
+
+        System.out.println(markerCount + " markers, bridge messages per second: "
+                + FRAMES_PER_SECOND + " sending positions every frame ("
+                + FRAMES_PER_SECOND * markerCount + " as coordinate props), 1 animating");
+    }
+
+    private static LatLng start(int i) {
+        return new LatLng(45 + (i % 100) * 0.01, 7 + (i / 100) * 0.01);
+    }
+
+    @Benchmark
+    public int positionsEveryFrame() {
+        long frameNanos = System.nanoTime();
+        for (int frame = 0; frame < FRAMES_PER_SECOND; frame++) {
+            receive(_tickMoves[frame]);
+            frameNanos += FRAME_NANOS;
+            _animator.doFrame(frameNanos);
+        }
+        return _animator.getActiveCount();
+    }
+
+    @Benchmark
+    public int animated() {
+        long frameNanos = System.nanoTime();
+        receive(_animatedMoves);
+        for (int frame = 0; frame < FRAMES_PER_SECOND; frame++) {
+            frameNanos += FRAME_NANOS;
+            _animator.doFrame(frameNanos);
+        }
+        // Moves that haven't arrived would carry over to the next second
+        _animator.clear();
+        return _animator.getActiveCount();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int frame() {
+        _steadyFrameNanos += FRAME_NANOS;
+        _steadyAnimator.doFrame(_steadyFrameNanos);
+        return _steadyAnimator.getActiveCount();
+    }
+
+    // Decodes a message like the animateAnnotations command does and starts its moves
+    private void receive(ReadableArray moves) {
+        int count = moves.size();
+        for (int i = 0; i < count; i++) {
+            ReadableMap move = moves.getMap(i);
+            Marker marker = _markers.get(move.getString("id"));
+            int duration = move.hasKey("duration") ? move.getInt("duration") : 0;
+            int easing = RNMGLMarkerAnimator.easingFromJS(move.hasKey("easing") ? move.getString("easing") : null);
+            _animator.moveTo(marker, move.getDouble("latitude"), move.getDouble("longitude"), duration, easing);
+        }
+    }
+}
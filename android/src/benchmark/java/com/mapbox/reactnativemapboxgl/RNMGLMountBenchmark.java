@@ -0,0 +1,98 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Mounting and unmounting custom annotation views through the manager, with a listener that
+ * queues the changes like the map view does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLMountBenchmark {
+
+    private static final int MOVED_COUNT = 100;
+
+    @Param({ "2000" })
+    public int viewCount;
+
+    private ReactNativeMapboxGLManager _manager;
+    private ReactNativeMapboxGLView _empty;
+    private ReactNativeMapboxGLView _full;
+    private final RNMGLAnnotationViewChanges _changes = new RNMGLAnnotationViewChanges();
+    private List<RNMGLAnnotationView> _views;
+    private final Random _random = new Random(42);
+
+    @Setup
+    public void setUp() {
+        _manager = new ReactNativeMapboxGLManager(null);
+        // Only used as keys by the manager, recording calls would fill the heap
+        _empty = mock(ReactNativeMapboxGLView.class, withSettings().stubOnly());
+        _full = mock(ReactNativeMapboxGLView.class, withSettings().stubOnly());
+
+        ReactNativeMapboxGLManager.ChildListener listener = new ReactNativeMapboxGLManager.ChildListener() {
+            @Override
+            public void childAdded(View child) {
+                _changes.added((RNMGLAnnotationView) child);
+            }
+
+            @Override
+            public void childRemoved(View child) {
+                _changes.removed((RNMGLAnnotationView) child);
+            }
+        };
+        _manager.addChildListener(_empty, listener);
+        _manager.addChildListener(_full, listener);
+
+        _views = new ArrayList<>(viewCount);
+        for (int i = 0; i < viewCount; i++) {
+            RNMGLAnnotationView view = new RNMGLAnnotationView(null);
+            _views.add(view);
+            _manager.addView(_full, view, i);
+        }
+        _changes.clear();
+    }
+
+    @Benchmark
+    public int mountAndUnmountAll() {
+        for (int i = 0; i < viewCount; i++) {
+            _manager.addView(_empty, _views.get(i), i);
+        }
+        // React removes from the front when a list is cleared
+        for (int i = 0; i < viewCount; i++) {
+            _manager.removeViewAt(_empty, 0);
+        }
+        _changes.clear();
+        return _manager.getChildCount(_empty);
+    }
+
+    @Benchmark
+    public boolean move() {
+        for (int i = 0; i < MOVED_COUNT; i++) {
+            int from = _random.nextInt(viewCount);
+            View child = _manager.getChildAt(_full, from);
+            _manager.removeViewAt(_full, from);
+            _manager.addView(_full, child, _random.nextInt(viewCount));
+        }
+        boolean empty = _changes.isEmpty();
+        _changes.clear();
+        return empty;
+    }
+}
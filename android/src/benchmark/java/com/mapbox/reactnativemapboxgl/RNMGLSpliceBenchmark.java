@@ -0,0 +1,61 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JVM side of a splice: decoding the annotations sent from JS and grouping them into one
+ * batch per type. The native add calls that batching saves need a device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLSpliceBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int annotationCount;
+
+    private ReadableArray _itemsToAdd;
+
+    @Setup
+    public void setUp() {
+        FakeReadableArray items = new FakeReadableArray();
+        for (int i = 0; i < annotationCount; i++) {
+            double latitude = 45 + (i % 100) * 0.01;
+            double longitude = 7 + (i / 100) * 0.01;
+            FakeReadableArray coordinates = new FakeReadableArray(
+                    new FakeReadableArray(latitude, longitude),
+                    new FakeReadableArray(latitude + 0.005, longitude),
+                    new FakeReadableArray(latitude + 0.005, longitude + 0.005));
+            items.push(new FakeReadableMap()
+                    .put("id", "annotation" + i)
+                    .put("type", i % 2 == 0 ? "polyline" : "polygon")
+                    .put("coordinates", coordinates)
+                    .put("strokeColor", "#ff0000"));
+        }
+        _itemsToAdd = items;
+    }
+
+    @Benchmark
+    public RNMGLAnnotationBatch decodeAndBatch() {
+        RNMGLAnnotationBatch batch = new RNMGLAnnotationBatch(10);
+        int count = _itemsToAdd.size();
+        for (int i = 0; i < count; i++) {
+            ReadableMap annotation = _itemsToAdd.getMap(i);
+            RNMGLAnnotationOptions options = RNMGLAnnotationOptionsFactory.annotationOptionsFromJS(annotation, null);
+            batch.add(annotation.getString("id"), options);
+        }
+        return batch;
+    }
+}
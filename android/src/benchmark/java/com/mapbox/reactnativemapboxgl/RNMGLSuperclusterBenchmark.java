@@ -0,0 +1,80 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the cluster hierarchy for a large point set, and getting the clusters of a viewport at
+ * a few zoom levels. The clusterer's radius and zoom range are used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RNMGLSuperclusterBenchmark {
+
+    private static final double RADIUS = 40;
+    private static final int MIN_ZOOM = 0;
+    private static final int MAX_ZOOM = 16;
+
+    // Only used by the queries, so that the build isn't repeated for every zoom level
+    @State(Scope.Thread)
+    public static class Viewport {
+        @Param({ "3", "8", "14" })
+        public int zoom;
+    }
+
+    @Param({ "100000" })
+    public int pointCount;
+
+    private double[] _latitudes;
+    private double[] _longitudes;
+    private RNMGLSupercluster _index;
+
+    @Setup
+    public void setUp() {
+        // Clustered around a few hundred centers, like stops or vehicles in cities
+        Random random = new Random(42);
+        _latitudes = new double[pointCount];
+        _longitudes = new double[pointCount];
+        double[] centers = new double[2 * 300];
+        for (int i = 0; i < centers.length; i += 2) {
+            centers[i] = -60 + random.nextDouble() * 130;
+            centers[i + 1] = -180 + random.nextDouble() * 360;
+        }
+        for (int i = 0; i < pointCount; i++) {
+            int center = 2 * random.nextInt(centers.length / 2);
+            _latitudes[i] = Math.max(-85, Math.min(85, centers[center] + random.nextGaussian()));
+            _longitudes[i] = Math.max(-180, Math.min(180, centers[center + 1] + random.nextGaussian()));
+        }
+        _index = new RNMGLSupercluster(_latitudes, _longitudes, pointCount, RADIUS, MIN_ZOOM, MAX_ZOOM);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RNMGLSupercluster build() {
+        return new RNMGLSupercluster(_latitudes, _longitudes, pointCount, RADIUS, MIN_ZOOM, MAX_ZOOM);
+    }
+
+    @Benchmark
+    public List<RNMGLSupercluster.Node> query(Viewport viewport) {
+        // About a phone screen around the first point
+        int zoom = viewport.zoom;
+        double span = 360 / Math.pow(2, zoom);
+        double latitude = _latitudes[0];
+        double longitude = _longitudes[0];
+        List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+        _index.getClusters(latitude - span / 2, longitude - span / 2, latitude + span / 2, longitude + span / 2, zoom, clusters);
+        return clusters;
+    }
+}
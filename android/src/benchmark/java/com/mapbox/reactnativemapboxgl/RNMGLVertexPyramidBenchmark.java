@@ -0,0 +1,88 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simplification of a long GPS trace: ranking its vertices once, and picking the vertices of a
+ * zoom level the first time the map reaches it. The number of vertices kept at each zoom level is
+ * printed with the results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RNMGLVertexPyramidBenchmark {
+
+    private static final double TOLERANCE = 1;
+
+    @State(Scope.Benchmark)
+    public static class Trace {
+        @Param({ "200000" })
+        public int vertexCount;
+
+        double[] coordinates;
+
+        @Setup
+        public void setUp() {
+            // A random walk with GPS noise, about a meter between fixes
+            Random random = new Random(42);
+            coordinates = new double[2 * vertexCount];
+            double latitude = 45;
+            double longitude = 7;
+            double heading = 0;
+            for (int i = 0; i < vertexCount; i++) {
+                heading += random.nextGaussian() * 0.05;
+                latitude += Math.cos(heading) * 1e-5 + random.nextGaussian() * 1e-6;
+                longitude += Math.sin(heading) * 1e-5 + random.nextGaussian() * 1e-6;
+                coordinates[2 * i] = latitude;
+                coordinates[2 * i + 1] = longitude;
+            }
+        }
+    }
+
+    // Only used by the zoom level benchmark, so that ranking isn't repeated for every zoom level
+    @State(Scope.Thread)
+    public static class Zoom {
+        @Param({ "4", "8", "12", "16", "20" })
+        public int zoom;
+
+        double[] coordinates;
+        RNMGLVertexPyramid pyramid;
+
+        @Setup(Level.Trial)
+        public void printVertexCount(Trace trace) {
+            coordinates = trace.coordinates;
+            RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(coordinates, TOLERANCE);
+            int kept = pyramid.getPoints(pyramid.levelForZoom(zoom)).size();
+            System.out.println("Zoom " + zoom + ": " + kept + " of " + pyramid.getVertexCount() + " vertices");
+        }
+
+        // Levels are cached, so every call needs a pyramid that hasn't built the level yet
+        @Setup(Level.Invocation)
+        public void setUp() {
+            pyramid = new RNMGLVertexPyramid(coordinates, TOLERANCE);
+        }
+    }
+
+    @Benchmark
+    public RNMGLVertexPyramid rank(Trace trace) {
+        return new RNMGLVertexPyramid(trace.coordinates, TOLERANCE);
+    }
+
+    @Benchmark
+    public List<LatLng> pointsForZoom(Zoom zoom) {
+        return zoom.pyramid.getPoints(zoom.pyramid.levelForZoom(zoom.zoom));
+    }
+}
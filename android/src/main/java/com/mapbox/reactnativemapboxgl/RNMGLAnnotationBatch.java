@@ -0,0 +1,91 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.mapbox.mapboxsdk.annotations.Annotation;
+import com.mapbox.mapboxsdk.annotations.MarkerOptions;
+import com.mapbox.mapboxsdk.annotations.PolygonOptions;
+import com.mapbox.mapboxsdk.annotations.PolylineOptions;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups annotation options by type so that they can be added to the map with a single
+ * addMarkers/addPolylines/addPolygons call per type instead of one native call per annotation.
+ */
+public class RNMGLAnnotationBatch {
+
+    public interface Callback {
+        void annotationAdded(String name, RNMGLAnnotationOptions options, Annotation annotation);
+    }
+
+    // Zoom level of the map the batch is going to be added to
+    private final double _zoom;
+
+    private List<String> _markerNames = new ArrayList<>();
+    private List<RNMGLAnnotationOptions> _markerOptions = new ArrayList<>();
+    private List<MarkerOptions> _markers = new ArrayList<>();
+
+    private List<String> _polylineNames = new ArrayList<>();
+    private List<RNMGLAnnotationOptions> _polylineOptions = new ArrayList<>();
+    private List<PolylineOptions> _polylines = new ArrayList<>();
+
+    private List<String> _polygonNames = new ArrayList<>();
+    private List<RNMGLAnnotationOptions> _polygonOptions = new ArrayList<>();
+    private List<PolygonOptions> _polygons = new ArrayList<>();
+
+    public RNMGLAnnotationBatch(double zoom) {
+        _zoom = zoom;
+    }
+
+    public double getZoom() {
+        return _zoom;
+    }
+
+    public void add(String name, RNMGLAnnotationOptions options) {
+        options.addToBatch(this, name);
+    }
+
+    void addMarker(String name, RNMGLAnnotationOptions options, MarkerOptions marker) {
+        _markerNames.add(name);
+        _markerOptions.add(options);
+        _markers.add(marker);
+    }
+
+    void addPolyline(String name, RNMGLAnnotationOptions options, PolylineOptions polyline) {
+        _polylineNames.add(name);
+        _polylineOptions.add(options);
+        _polylines.add(polyline);
+    }
+
+    void addPolygon(String name, RNMGLAnnotationOptions options, PolygonOptions polygon) {
+        _polygonNames.add(name);
+        _polygonOptions.add(options);
+        _polygons.add(polygon);
+    }
+
+    public int size() {
+        return _markers.size() + _polylines.size() + _polygons.size();
+    }
+
+    public void addToMap(MapboxMap map, Callback callback) {
+        if (!_markers.isEmpty()) {
+            notifyAdded(_markerNames, _markerOptions, map.addMarkers(_markers), callback);
+        }
+        if (!_polylines.isEmpty()) {
+            notifyAdded(_polylineNames, _polylineOptions, map.addPolylines(_polylines), callback);
+        }
+        if (!_polygons.isEmpty()) {
+            notifyAdded(_polygonNames, _polygonOptions, map.addPolygons(_polygons), callback);
+        }
+    }
+
+    private static void notifyAdded(List<String> names, List<RNMGLAnnotationOptions> options,
+                                    List<? extends Annotation> annotations, Callback callback) {
+        // The SDK returns the annotations in the same order as the options it was given
+        int count = annotations.size();
+        for (int i = 0; i < count; i++) {
+            callback.annotationAdded(names.get(i), options.get(i), annotations.get(i));
+        }
+    }
+}
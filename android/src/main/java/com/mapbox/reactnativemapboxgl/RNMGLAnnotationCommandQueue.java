@@ -0,0 +1,106 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs annotation commands in two stages: payloads are decoded on a single background thread,
+ * then the decoded result is applied to the map on the UI thread. Both stages are serial, so
+ * commands are applied in the order they were received.
+ */
+public class RNMGLAnnotationCommandQueue {
+
+    private static final String TAG = RNMGLAnnotationCommandQueue.class.getSimpleName();
+
+    public static abstract class Command {
+        // Runs on the decoder thread. Must not touch the map.
+        protected void decode() {}
+
+        // Runs on the UI thread once every previously queued command has been applied.
+        protected abstract void apply();
+    }
+
+    private final ExecutorService _decoder;
+    private final Handler _mainHandler;
+
+    // Stage timings, only touched on the UI thread
+    private int _commandCount = 0;
+    private long _lastDecodeNanos = 0;
+    private long _lastApplyNanos = 0;
+    private long _totalDecodeNanos = 0;
+    private long _totalApplyNanos = 0;
+
+    public RNMGLAnnotationCommandQueue() {
+        _mainHandler = new Handler(Looper.getMainLooper());
+        _decoder = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "RNMGLAnnotationDecoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public void enqueue(final Command command) {
+        _decoder.execute(new Runnable() {
+            @Override
+            public void run() {
+                long decodeStart = System.nanoTime();
+                try {
+                    command.decode();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Dropping annotation command that failed to decode", e);
+                    return;
+                }
+                final long decodeNanos = System.nanoTime() - decodeStart;
+
+                _mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        long applyStart = System.nanoTime();
+                        command.apply();
+                        recordTimings(decodeNanos, System.nanoTime() - applyStart);
+                    }
+                });
+            }
+        });
+    }
+
+    private void recordTimings(long decodeNanos, long applyNanos) {
+        _commandCount++;
+        _lastDecodeNanos = decodeNanos;
+        _lastApplyNanos = applyNanos;
+        _totalDecodeNanos += decodeNanos;
+        _totalApplyNanos += applyNanos;
+
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "Annotation command decoded in " + (decodeNanos / 1000) + "us, applied in " + (applyNanos / 1000) + "us");
+        }
+    }
+
+    public int getCommandCount() {
+        return _commandCount;
+    }
+
+    public long getLastDecodeNanos() {
+        return _lastDecodeNanos;
+    }
+
+    public long getLastApplyNanos() {
+        return _lastApplyNanos;
+    }
+
+    public long getTotalDecodeNanos() {
+        return _totalDecodeNanos;
+    }
+
+    public long getTotalApplyNanos() {
+        return _totalApplyNanos;
+    }
+}
@@ -0,0 +1,211 @@
+package com.mapbox.reactnativemapboxgl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A quadtree of annotation bounding boxes keyed by annotation id, used to find the annotations
+ * that intersect the viewport. Boxes are {south, west, north, east} in degrees. An entry is
+ * stored in the deepest node that fully contains it.
+ */
+public class RNMGLAnnotationIndex {
+
+    private static final int NODE_CAPACITY = 16;
+    private static final int MAX_DEPTH = 18;
+
+    private static class Entry {
+        final String id;
+        final double south, west, north, east;
+        Node node;
+        // Position in node.entries
+        int slot;
+
+        Entry(String id, double south, double west, double north, double east) {
+            this.id = id;
+            this.south = south;
+            this.west = west;
+            this.north = north;
+            this.east = east;
+        }
+    }
+
+    private static class Node {
+        final double south, west, north, east;
+        final int depth;
+        final List<Entry> entries = new ArrayList<>();
+        Node[] children;
+
+        Node(double south, double west, double north, double east, int depth) {
+            this.south = south;
+            this.west = west;
+            this.north = north;
+            this.east = east;
+            this.depth = depth;
+        }
+
+        void add(Entry entry) {
+            entry.node = this;
+            entry.slot = entries.size();
+            entries.add(entry);
+        }
+
+        // Moves the last entry into the removed one's slot, so removal doesn't shift the list
+        void remove(Entry entry) {
+            Entry last = entries.remove(entries.size() - 1);
+            if (last != entry) {
+                entries.set(entry.slot, last);
+                last.slot = entry.slot;
+            }
+            entry.node = null;
+        }
+
+        boolean contains(Entry entry) {
+            return entry.south >= south && entry.north <= north && entry.west >= west && entry.east <= east;
+        }
+
+        boolean intersects(double qSouth, double qWest, double qNorth, double qEast) {
+            return qSouth <= north && qNorth >= south && qWest <= east && qEast >= west;
+        }
+    }
+
+    private final Map<String, Entry> _entries = new HashMap<>();
+    private Node _root = newRoot();
+
+    private static Node newRoot() {
+        return new Node(-90, -180, 90, 180, 0);
+    }
+
+    public int size() {
+        return _entries.size();
+    }
+
+    public void clear() {
+        _entries.clear();
+        _root = newRoot();
+    }
+
+    public void put(String id, double[] bounds) {
+        put(id, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    public void put(String id, double south, double west, double north, double east) {
+        Entry existing = _entries.get(id);
+        if (existing != null) {
+            if (existing.south == south && existing.west == west && existing.north == north && existing.east == east) {
+                return;
+            }
+            existing.node.remove(existing);
+        }
+
+        Entry entry = new Entry(id, south, west, north, east);
+        _entries.put(id, entry);
+        insert(_root, entry);
+    }
+
+    public boolean remove(String id) {
+        Entry entry = _entries.remove(id);
+        if (entry == null) { return false; }
+        entry.node.remove(entry);
+        return true;
+    }
+
+    /**
+     * Adds the ids of every entry intersecting the given box to results. Longitudes may extend
+     * past the antimeridian, e.g. a west of 170 and an east of 190.
+     */
+    public void query(double south, double west, double north, double east, Collection<String> results) {
+        if (east - west >= 360) {
+            queryRange(south, -180, north, 180, results);
+            return;
+        }
+
+        // Normalize west into [-180, 180) and split ranges that cross the antimeridian
+        double span = east - west;
+        west = ((west + 180) % 360 + 360) % 360 - 180;
+        east = west + span;
+        if (east > 180) {
+            queryRange(south, west, north, 180, results);
+            queryRange(south, -180, north, east - 360, results);
+        } else {
+            queryRange(south, west, north, east, results);
+        }
+    }
+
+    /**
+     * Whether a {south, west, north, east} box intersects the given box, with the same longitude
+     * conventions as query().
+     */
+    public static boolean intersects(double[] box, double south, double west, double north, double east) {
+        if (box[0] > north || box[2] < south) { return false; }
+        if (east - west >= 360) { return box[1] <= box[3]; }
+
+        double span = east - west;
+        west = ((west + 180) % 360 + 360) % 360 - 180;
+        east = west + span;
+        if (box[1] <= east && box[3] >= west) { return true; }
+        return east > 180 && box[1] <= east - 360 && box[3] >= -180;
+    }
+
+    private void queryRange(double south, double west, double north, double east, Collection<String> results) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(_root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            for (Entry entry : node.entries) {
+                if (entry.south <= north && entry.north >= south && entry.west <= east && entry.east >= west) {
+                    results.add(entry.id);
+                }
+            }
+            if (node.children == null) { continue; }
+            for (Node child : node.children) {
+                if (child.intersects(south, west, north, east)) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    private void insert(Node node, Entry entry) {
+        while (node.children != null) {
+            Node child = childContaining(node, entry);
+            if (child == null) { break; }
+            node = child;
+        }
+
+        node.add(entry);
+
+        if (node.children == null && node.entries.size() > NODE_CAPACITY && node.depth < MAX_DEPTH) {
+            split(node);
+        }
+    }
+
+    private static Node childContaining(Node node, Entry entry) {
+        for (Node child : node.children) {
+            if (child.contains(entry)) { return child; }
+        }
+        return null;
+    }
+
+    private void split(Node node) {
+        double midLat = (node.south + node.north) / 2;
+        double midLng = (node.west + node.east) / 2;
+        int depth = node.depth + 1;
+        node.children = new Node[] {
+                new Node(node.south, node.west, midLat, midLng, depth),
+                new Node(node.south, midLng, midLat, node.east, depth),
+                new Node(midLat, node.west, node.north, midLng, depth),
+                new Node(midLat, midLng, node.north, node.east, depth)
+        };
+
+        List<Entry> entries = new ArrayList<>(node.entries);
+        node.entries.clear();
+        for (Entry entry : entries) {
+            insert(node, entry);
+        }
+    }
+}
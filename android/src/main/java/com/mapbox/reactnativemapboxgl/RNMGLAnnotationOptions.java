@@ -5,4 +5,22 @@ import com.mapbox.mapboxsdk.maps.MapboxMap;
 
 public interface RNMGLAnnotationOptions {
     public abstract Annotation addToMap(MapboxMap map);
-}
\ No newline at end of file
+    public abstract void addToBatch(RNMGLAnnotationBatch batch, String name);
+
+    /**
+     * Applies these options to an annotation that is already on the map. Returns false if the
+     * annotation is of a different type and has to be replaced instead.
+     */
+    public abstract boolean updateAnnotation(MapboxMap map, Annotation annotation);
+
+    /**
+     * The bounding box of the annotation as {south, west, north, east}. Must not be modified.
+     */
+    public abstract double[] getBounds();
+
+    /**
+     * Whether the annotation looks different depending on the zoom level, in which case
+     * updateAnnotation() is called again when the zoom level changes.
+     */
+    public abstract boolean isZoomDependent();
+}
@@ -1,68 +1,273 @@
 package com.mapbox.reactnativemapboxgl;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
-import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.v4.content.ContextCompat;
+import android.util.Base64;
 
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableArray;
 import com.mapbox.mapboxsdk.annotations.Annotation;
 import com.mapbox.mapboxsdk.annotations.Icon;
-import com.mapbox.mapboxsdk.annotations.IconFactory;
+import com.mapbox.mapboxsdk.annotations.Marker;
 import com.mapbox.mapboxsdk.annotations.MarkerOptions;
+import com.mapbox.mapboxsdk.annotations.MarkerView;
+import com.mapbox.mapboxsdk.annotations.Polygon;
 import com.mapbox.mapboxsdk.annotations.PolygonOptions;
+import com.mapbox.mapboxsdk.annotations.Polyline;
 import com.mapbox.mapboxsdk.annotations.PolylineOptions;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
 
 class RNMGLMarkerOptions implements RNMGLAnnotationOptions {
-    protected MarkerOptions _options;
+    private final MarkerOptions _options;
+
+    // Remote icon to load once the marker is on the map, or null
+    private final String _pendingIconUri;
+    private final int _pendingIconWidth;
+    private final int _pendingIconHeight;
+    private final double[] _bounds;
 
     public RNMGLMarkerOptions(MarkerOptions options) {
+        this(options, null, -1, -1);
+    }
+
+    public RNMGLMarkerOptions(MarkerOptions options, String pendingIconUri, int pendingIconWidth, int pendingIconHeight) {
         _options = options;
+        _bounds = RNMGLAnnotationOptionsFactory.boundsOf(Collections.singletonList(options.getPosition()));
+        _pendingIconUri = pendingIconUri;
+        _pendingIconWidth = pendingIconWidth;
+        _pendingIconHeight = pendingIconHeight;
+    }
+
+    public LatLng getPosition() {
+        return _options.getPosition();
+    }
+
+    public RNMGLMarkerOptions withPosition(LatLng position) {
+        MarkerOptions options = new MarkerOptions()
+                .position(position)
+                .title(_options.getTitle())
+                .snippet(_options.getSnippet())
+                .icon(_options.getIcon());
+        return new RNMGLMarkerOptions(options, _pendingIconUri, _pendingIconWidth, _pendingIconHeight);
+    }
+
+    // Identifies the pending icon, or null if there is none
+    public @Nullable String getPendingIconKey() {
+        if (_pendingIconUri == null) { return null; }
+        return RNMGLIconLoader.cacheKey(_pendingIconUri, _pendingIconWidth, _pendingIconHeight);
+    }
+
+    public void loadPendingIcon(Context context, RNMGLIconLoader.Listener listener) {
+        if (_pendingIconUri == null) { return; }
+        RNMGLIconLoader.getInstance(context).load(_pendingIconUri, _pendingIconWidth, _pendingIconHeight, listener);
     }
 
     @Override
     public Annotation addToMap(MapboxMap map) {
         return map.addMarker(_options);
     }
+
+    @Override
+    public void addToBatch(RNMGLAnnotationBatch batch, String name) {
+        batch.addMarker(name, this, _options);
+    }
+
+    @Override
+    public boolean updateAnnotation(MapboxMap map, Annotation annotation) {
+        if (!(annotation instanceof Marker) || annotation instanceof MarkerView) { return false; }
+        Marker marker = (Marker) annotation;
+
+        if (!_options.getPosition().equals(marker.getPosition())) {
+            marker.setPosition(_options.getPosition());
+        }
+        if (!equal(_options.getTitle(), marker.getTitle())) {
+            marker.setTitle(_options.getTitle());
+        }
+        if (!equal(_options.getSnippet(), marker.getSnippet())) {
+            marker.setSnippet(_options.getSnippet());
+        }
+        // A pending icon replaces the current one once it has loaded, don't flash the placeholder
+        if (_pendingIconUri == null && _options.getIcon() != marker.getIcon()) {
+            marker.setIcon(_options.getIcon());
+        }
+        return true;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return _bounds;
+    }
+
+    @Override
+    public boolean isZoomDependent() {
+        return false;
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
 }
 
 class RNMGLPolylineOptions implements RNMGLAnnotationOptions {
-    protected PolylineOptions _options;
+    private final PolylineOptions _options;
+
+    // Points simplified by zoom level, or null to always show all of them
+    private final RNMGLVertexPyramid _pyramid;
+    private final double[] _bounds;
 
     public RNMGLPolylineOptions(PolylineOptions options) {
         _options = options;
+        _pyramid = null;
+        _bounds = RNMGLAnnotationOptionsFactory.boundsOf(options.getPoints());
+    }
+
+    public RNMGLPolylineOptions(PolylineOptions options, RNMGLVertexPyramid pyramid) {
+        _options = options;
+        _pyramid = pyramid;
+        _bounds = RNMGLAnnotationOptionsFactory.boundsOf(pyramid.getCoordinates());
+    }
+
+    private List<LatLng> pointsForZoom(double zoom) {
+        if (_pyramid == null) { return _options.getPoints(); }
+        return _pyramid.getPoints(_pyramid.levelForZoom(zoom));
+    }
+
+    private PolylineOptions optionsForZoom(double zoom) {
+        if (_pyramid == null) { return _options; }
+        return new PolylineOptions()
+                .addAll(pointsForZoom(zoom))
+                .color(_options.getColor())
+                .width(_options.getWidth())
+                .alpha(_options.getAlpha());
     }
 
     @Override
     public Annotation addToMap(MapboxMap map) {
-        return map.addPolyline(_options);
+        return map.addPolyline(optionsForZoom(map.getCameraPosition().zoom));
+    }
+
+    @Override
+    public void addToBatch(RNMGLAnnotationBatch batch, String name) {
+        batch.addPolyline(name, this, optionsForZoom(batch.getZoom()));
+    }
+
+    @Override
+    public boolean updateAnnotation(MapboxMap map, Annotation annotation) {
+        if (!(annotation instanceof Polyline)) { return false; }
+        Polyline polyline = (Polyline) annotation;
+
+        List<LatLng> points = pointsForZoom(map.getCameraPosition().zoom);
+        if (!points.equals(polyline.getPoints())) {
+            polyline.setPoints(points);
+        }
+        if (_options.getColor() != polyline.getColor()) {
+            polyline.setColor(_options.getColor());
+        }
+        if (_options.getWidth() != polyline.getWidth()) {
+            polyline.setWidth(_options.getWidth());
+        }
+        if (_options.getAlpha() != polyline.getAlpha()) {
+            polyline.setAlpha(_options.getAlpha());
+        }
+        return true;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return _bounds;
+    }
+
+    @Override
+    public boolean isZoomDependent() {
+        return _pyramid != null;
     }
 }
 
 class RNMGLPolygonOptions implements RNMGLAnnotationOptions {
-    protected PolygonOptions _options;
+    private final PolygonOptions _options;
+
+    // Points simplified by zoom level, or null to always show all of them
+    private final RNMGLVertexPyramid _pyramid;
+    private final double[] _bounds;
 
     public RNMGLPolygonOptions(PolygonOptions options) {
         _options = options;
+        _pyramid = null;
+        _bounds = RNMGLAnnotationOptionsFactory.boundsOf(options.getPoints());
+    }
+
+    public RNMGLPolygonOptions(PolygonOptions options, RNMGLVertexPyramid pyramid) {
+        _options = options;
+        _pyramid = pyramid;
+        _bounds = RNMGLAnnotationOptionsFactory.boundsOf(pyramid.getCoordinates());
+    }
+
+    private List<LatLng> pointsForZoom(double zoom) {
+        if (_pyramid == null) { return _options.getPoints(); }
+        return _pyramid.getPoints(_pyramid.levelForZoom(zoom));
+    }
+
+    private PolygonOptions optionsForZoom(double zoom) {
+        if (_pyramid == null) { return _options; }
+        return new PolygonOptions()
+                .addAll(pointsForZoom(zoom))
+                .fillColor(_options.getFillColor())
+                .strokeColor(_options.getStrokeColor())
+                .alpha(_options.getAlpha());
     }
 
     @Override
     public Annotation addToMap(MapboxMap map) {
-        return map.addPolygon(_options);
+        return map.addPolygon(optionsForZoom(map.getCameraPosition().zoom));
+    }
+
+    @Override
+    public void addToBatch(RNMGLAnnotationBatch batch, String name) {
+        batch.addPolygon(name, this, optionsForZoom(batch.getZoom()));
+    }
+
+    @Override
+    public boolean updateAnnotation(MapboxMap map, Annotation annotation) {
+        if (!(annotation instanceof Polygon)) { return false; }
+        Polygon polygon = (Polygon) annotation;
+
+        List<LatLng> points = pointsForZoom(map.getCameraPosition().zoom);
+        if (!points.equals(polygon.getPoints())) {
+            polygon.setPoints(points);
+        }
+        if (_options.getFillColor() != polygon.getFillColor()) {
+            polygon.setFillColor(_options.getFillColor());
+        }
+        if (_options.getStrokeColor() != polygon.getStrokeColor()) {
+            polygon.setStrokeColor(_options.getStrokeColor());
+        }
+        if (_options.getAlpha() != polygon.getAlpha()) {
+            polygon.setAlpha(_options.getAlpha());
+        }
+        return true;
+    }
+
+    @Override
+    public double[] getBounds() {
+        return _bounds;
+    }
+
+    @Override
+    public boolean isZoomDependent() {
+        return _pyramid != null;
     }
 }
 
@@ -82,52 +287,89 @@ public class RNMGLAnnotationOptionsFactory {
         return null;
     }
 
-    static Drawable drawableFromDrawableName(Context context, String drawableName) {
-        int resID = context.getResources().getIdentifier(drawableName, "drawable", context.getApplicationContext().getPackageName());
-        return ContextCompat.getDrawable(context, resID);
+    static int drawableIdFromDrawableName(Context context, String drawableName) {
+        return context.getResources().getIdentifier(drawableName, "drawable", context.getApplicationContext().getPackageName());
     }
 
-    static Drawable drawableFromUrl(Context context, String url) throws IOException {
-        // This doesn't currently work, as it throws NetworkOnMainThreadException
-        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-        connection.connect();
-        InputStream input = connection.getInputStream();
+    static double[] boundsOf(List<LatLng> points) {
+        // An empty box that never intersects anything
+        double south = 90, west = 180, north = -90, east = -180;
+        for (LatLng point : points) {
+            south = Math.min(south, point.getLatitude());
+            north = Math.max(north, point.getLatitude());
+            west = Math.min(west, point.getLongitude());
+            east = Math.max(east, point.getLongitude());
+        }
+        return new double[] { south, west, north, east };
+    }
 
-        Bitmap bitmap = BitmapFactory.decodeStream(input);
-        return new BitmapDrawable(context.getResources(), bitmap);
+    static double[] boundsOf(double[] coordinates) {
+        double south = 90, west = 180, north = -90, east = -180;
+        for (int i = 0; i < coordinates.length; i += 2) {
+            south = Math.min(south, coordinates[i]);
+            north = Math.max(north, coordinates[i]);
+            west = Math.min(west, coordinates[i + 1]);
+            east = Math.max(east, coordinates[i + 1]);
+        }
+        return new double[] { south, west, north, east };
     }
 
-    static Map<String, Icon> iconCache = new HashMap();
+    /**
+     * Reads the coordinates of a polyline or polygon as lat, lng pairs. Large geometries are sent
+     * as encodedCoordinates, a base64 string of little-endian doubles, instead of nested arrays.
+     */
+    static double[] coordinatesFromJS(ReadableMap annotation) {
+        if (annotation.hasKey("encodedCoordinates")) {
+            return coordinatesFromBytes(Base64.decode(annotation.getString("encodedCoordinates"), Base64.DEFAULT));
+        }
+        return coordinatesFromJS(annotation.getArray("coordinates"));
+    }
 
-    static Icon iconFromSourceAndSize(Context context, ReadableMap source, int width, int height) throws IOException {
-        String path = source.getString("uri");
-        String cacheKey = path + "||" + width + "||" + height;
-        Icon icon = iconCache.get(cacheKey);
-        if (icon != null) { return icon; }
+    /**
+     * Reads little-endian doubles as lat, lng pairs. A trailing unpaired value is ignored.
+     */
+    static double[] coordinatesFromBytes(byte[] bytes) {
+        DoubleBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        double[] result = new double[buffer.remaining() & ~1];
+        buffer.get(result);
+        return result;
+    }
+
+    /**
+     * Flattens [[lat, lng], ...] into lat, lng pairs.
+     */
+    static double[] coordinatesFromJS(ReadableArray coordinates) {
+        int count = coordinates.size();
+        double[] result = new double[count * 2];
+        for (int p = 0; p < count; p++) {
+            ReadableArray coordinate = coordinates.getArray(p);
+            result[2 * p] = coordinate.getDouble(0);
+            result[2 * p + 1] = coordinate.getDouble(1);
+        }
+        return result;
+    }
 
-        Drawable drawable;
+    static boolean isRemoteUri(String uri) {
         try {
-            drawable = drawableFromUrl(context, path);
+            new URL(uri);
+            return true;
         } catch (MalformedURLException ex) {
-            drawable = drawableFromDrawableName(context, path);
+            return false;
         }
+    }
 
-        IconFactory iconFactory = IconFactory.getInstance(context);
-
-        int intrinsicWidth = drawable.getIntrinsicWidth();
-        int intrinsicHeight = drawable.getIntrinsicHeight();
-
-        if (width < 0) { width = intrinsicWidth; }
-        if (height < 0) { height = intrinsicHeight; }
+    static Icon iconFromDrawableNameAndSize(Context context, String drawableName, int width, int height) {
+        RNMGLIconLoader iconLoader = RNMGLIconLoader.getInstance(context);
+        Icon icon = iconLoader.getCachedIcon(drawableName, width, height);
+        if (icon != null) { return icon; }
 
-        // Check if a rescale would be superfluous
-        if ((drawable instanceof BitmapDrawable) && width == intrinsicWidth && height == intrinsicHeight) {
-            icon = iconFactory.fromBitmap(((BitmapDrawable)drawable).getBitmap());
-        } else {
-            icon = iconFactory.fromDrawable(drawable, width, height);
+        int resID = drawableIdFromDrawableName(context, drawableName);
+        icon = iconLoader.iconFromResource(resID, width, height);
+        if (icon == null) {
+            Drawable drawable = ContextCompat.getDrawable(context, resID);
+            icon = iconLoader.iconFromDrawable(drawable, width, height);
         }
-
-        iconCache.put(cacheKey, icon);
+        iconLoader.putCachedIcon(drawableName, width, height, icon);
         return icon;
     }
 
@@ -151,41 +393,54 @@ public class RNMGLAnnotationOptionsFactory {
 
         if (annotation.hasKey("annotationImage")) {
             ReadableMap annotationImage = annotation.getMap("annotationImage");
-            ReadableMap annotationSource = annotationImage.getMap("source");
-            try {
-                int width = -1;
-                int height = -1;
-
-                if (annotationImage.hasKey("height") && annotationImage.hasKey("width")) {
-                    float scale = context.getResources().getDisplayMetrics().density;
-                    height = Math.round((float)annotationImage.getInt("height") * scale);
-                    width = Math.round((float)annotationImage.getInt("width") * scale);
-                }
+            String uri = annotationImage.getMap("source").getString("uri");
+            int width = -1;
+            int height = -1;
+
+            if (annotationImage.hasKey("height") && annotationImage.hasKey("width")) {
+                float scale = context.getResources().getDisplayMetrics().density;
+                height = Math.round((float)annotationImage.getInt("height") * scale);
+                width = Math.round((float)annotationImage.getInt("width") * scale);
+            }
 
-                marker.icon(iconFromSourceAndSize(context, annotationSource, width, height));
-            } catch (Exception e) {
-                e.printStackTrace();
+            if (isRemoteUri(uri)) {
+                // Remote images are loaded asynchronously; show a placeholder until then
+                RNMGLIconLoader iconLoader = RNMGLIconLoader.getInstance(context);
+                Icon icon = iconLoader.getCachedIcon(uri, width, height);
+                if (icon != null) {
+                    marker.icon(icon);
+                } else {
+                    marker.icon(iconLoader.getPlaceholder(width, height));
+                    return new RNMGLMarkerOptions(marker, uri, width, height);
+                }
+            } else {
+                try {
+                    marker.icon(iconFromDrawableNameAndSize(context, uri, width, height));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
             }
         }
+
+        if (marker.getIcon() == null) {
+            // Set the SDK default explicitly so that in-place updates can restore it
+            marker.icon(RNMGLIconLoader.getInstance(context).getDefaultIcon());
+        }
         return new RNMGLMarkerOptions(marker);
     }
 
     static RNMGLAnnotationOptions polylineOptionsFromJS(ReadableMap annotation) {
         PolylineOptions polyline = new PolylineOptions();
 
-        ReadableArray coordinates = annotation.getArray("coordinates");
-        int coordinatesSize = coordinates.size();
-        if (coordinatesSize > 0) {
-            LatLng[] points = new LatLng[coordinatesSize];
-            ReadableArray coordinate;
-            for (int p = 0; p < coordinatesSize; p++) {
-                coordinate = coordinates.getArray(p);
-                points[p] = new LatLng(
-                    coordinate.getDouble(0),
-                    coordinate.getDouble(1)
-                );
+        double[] coordinates = coordinatesFromJS(annotation);
+        RNMGLVertexPyramid pyramid = null;
+        if (annotation.hasKey("simplificationTolerance") && annotation.getDouble("simplificationTolerance") > 0) {
+            // Points are picked from the pyramid by zoom level when added to the map
+            pyramid = new RNMGLVertexPyramid(coordinates, annotation.getDouble("simplificationTolerance"));
+        } else {
+            for (int p = 0; p < coordinates.length; p += 2) {
+                polyline.add(new LatLng(coordinates[p], coordinates[p + 1]));
             }
-            polyline.add(points);
         }
 
         if (annotation.hasKey("alpha")) {
@@ -203,17 +458,20 @@ public class RNMGLAnnotationOptionsFactory {
             polyline.width(strokeWidth);
         }
 
-        return new RNMGLPolylineOptions(polyline);
+        return pyramid == null ? new RNMGLPolylineOptions(polyline) : new RNMGLPolylineOptions(polyline, pyramid);
     }
 
     static RNMGLAnnotationOptions polygonOptionsFromJS(ReadableMap annotation) {
         PolygonOptions polygon = new PolygonOptions();
 
-        int coordSize = annotation.getArray("coordinates").size();
-        for (int p = 0; p < coordSize; p++) {
-            double latitude = annotation.getArray("coordinates").getArray(p).getDouble(0);
-            double longitude = annotation.getArray("coordinates").getArray(p).getDouble(1);
-            polygon.add(new LatLng(latitude, longitude));
+        double[] coordinates = coordinatesFromJS(annotation);
+        RNMGLVertexPyramid pyramid = null;
+        if (annotation.hasKey("simplificationTolerance") && annotation.getDouble("simplificationTolerance") > 0) {
+            pyramid = new RNMGLVertexPyramid(coordinates, annotation.getDouble("simplificationTolerance"));
+        } else {
+            for (int p = 0; p < coordinates.length; p += 2) {
+                polygon.add(new LatLng(coordinates[p], coordinates[p + 1]));
+            }
         }
 
         if (annotation.hasKey("alpha")) {
@@ -231,6 +489,6 @@ public class RNMGLAnnotationOptionsFactory {
             polygon.strokeColor(strokeColor);
         }
 
-        return new RNMGLPolygonOptions(polygon);
+        return pyramid == null ? new RNMGLPolygonOptions(polygon) : new RNMGLPolygonOptions(polygon, pyramid);
     }
 }
@@ -1,20 +1,34 @@
 package com.mapbox.reactnativemapboxgl;
 
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewParent;
 
 import com.facebook.react.views.view.ReactViewGroup;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RNMGLAnnotationView extends ReactViewGroup {
 
+    private static final AtomicInteger nextViewId = new AtomicInteger();
+
     private Set<PropertyListener> propertyListeners;
     private String annotationId;
     private LatLng coordinate;
     private float layoutWidth;
     private float layoutHeight;
+    private boolean rasterize;
+    private String rasterizeKey;
+    private int coordinateAnimationDuration;
+    private final int viewId = nextViewId.incrementAndGet();
+    private int contentGeneration;
+    private boolean drawingRaster;
 
     public RNMGLAnnotationView(Context context) {
         super(context);
@@ -40,11 +54,42 @@ public class RNMGLAnnotationView extends ReactViewGroup {
         fireUpdateEvent();
     }
 
+    // Records a move made natively, so that later property updates don't move the view back
+    void moveCoordinate(LatLng coordinate) {
+        this.coordinate = coordinate;
+    }
+
+    public int getCoordinateAnimationDuration() {
+        return coordinateAnimationDuration;
+    }
+
+    public void setCoordinateAnimationDuration(int coordinateAnimationDuration) {
+        this.coordinateAnimationDuration = coordinateAnimationDuration;
+    }
+
+    public boolean isRasterized() {
+        return rasterize;
+    }
+
+    public void setRasterize(boolean rasterize) {
+        if (this.rasterize == rasterize) { return; }
+        this.rasterize = rasterize;
+        fireUpdateEvent();
+    }
+
+    public void setRasterizeKey(String rasterizeKey) {
+        if (rasterizeKey == null ? this.rasterizeKey == null : rasterizeKey.equals(this.rasterizeKey)) { return; }
+        this.rasterizeKey = rasterizeKey;
+        fireUpdateEvent();
+    }
+
     // React layout
 
     public void setLayoutDimensions(float layoutWidth, float layoutHeight) {
+        if (this.layoutWidth == layoutWidth && this.layoutHeight == layoutHeight) { return; }
         this.layoutWidth = layoutWidth;
         this.layoutHeight = layoutHeight;
+        fireUpdateEvent();
     }
 
     public float getLayoutWidth() {
@@ -55,6 +100,69 @@ public class RNMGLAnnotationView extends ReactViewGroup {
         return layoutHeight;
     }
 
+    // Rasterization
+
+    /**
+     * Identifies the rendered content. Views with the same rasterize key and size share a bitmap,
+     * views without a key get their own, which changes whenever their subtree does.
+     */
+    public String getRasterContentKey() {
+        return rasterizeKey != null
+                ? "rasterize:" + rasterizeKey
+                : "rasterize-view:" + viewId + ":" + contentGeneration;
+    }
+
+    /**
+     * Whether the rendered content may be shared with other views.
+     */
+    public boolean hasSharedRasterContent() {
+        return rasterizeKey != null;
+    }
+
+    /**
+     * Draws the view into a bitmap, or returns null if it has not been laid out yet.
+     */
+    public Bitmap rasterize() {
+        int width = (int) layoutWidth;
+        int height = (int) layoutHeight;
+        if (width <= 0 || height <= 0) { return null; }
+
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawingRaster = true;
+        try {
+            draw(new Canvas(bitmap));
+        } finally {
+            drawingRaster = false;
+        }
+        return bitmap;
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        contentChanged();
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        contentChanged();
+    }
+
+    // Descendants redrawing themselves, e.g. after a text or image change
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        // Some views invalidate while being drawn, which isn't a change
+        if (!drawingRaster) { contentChanged(); }
+        return super.invalidateChildInParent(location, dirty);
+    }
+
+    private void contentChanged() {
+        contentGeneration++;
+        // Keyed content is only redrawn when the key changes
+        if (rasterize && rasterizeKey == null) { fireUpdateEvent(); }
+    }
+
     // Listeners
 
     public void addPropertyListener(PropertyListener propertyListener) {
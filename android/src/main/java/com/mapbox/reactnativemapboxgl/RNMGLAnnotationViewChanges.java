@@ -0,0 +1,50 @@
+package com.mapbox.reactnativemapboxgl;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The annotation views added to and removed from a map since they were last applied. An add and
+ * a remove of the same view cancel out, so only the net changes reach the map. Removals are
+ * applied before additions.
+ */
+public class RNMGLAnnotationViewChanges {
+
+    private final Set<RNMGLAnnotationView> _added = new LinkedHashSet<>();
+    private final Set<RNMGLAnnotationView> _removed = new LinkedHashSet<>();
+
+    public void added(RNMGLAnnotationView view) {
+        if (!_removed.remove(view)) {
+            _added.add(view);
+        }
+    }
+
+    public void removed(RNMGLAnnotationView view) {
+        if (!_added.remove(view)) {
+            _removed.add(view);
+        }
+    }
+
+    // The view's marker is removed and added again
+    public void replaced(RNMGLAnnotationView view) {
+        _removed.add(view);
+        _added.add(view);
+    }
+
+    public boolean isEmpty() {
+        return _added.isEmpty() && _removed.isEmpty();
+    }
+
+    public Set<RNMGLAnnotationView> getAdded() {
+        return _added;
+    }
+
+    public Set<RNMGLAnnotationView> getRemoved() {
+        return _removed;
+    }
+
+    public void clear() {
+        _added.clear();
+        _removed.clear();
+    }
+}
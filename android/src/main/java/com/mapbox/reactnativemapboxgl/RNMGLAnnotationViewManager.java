@@ -9,6 +9,8 @@ import com.mapbox.mapboxsdk.geometry.LatLng;
 
 import java.util.HashMap;
 
+import javax.annotation.Nullable;
+
 public class RNMGLAnnotationViewManager extends ViewGroupManager<RNMGLAnnotationView> {
 
     private static final String NAME = "RCTMapboxAnnotation";
@@ -48,6 +50,21 @@ public class RNMGLAnnotationViewManager extends ViewGroupManager<RNMGLAnnotation
         view.setCoordinate(coordinate);
     }
 
+    @ReactProp(name = "coordinateAnimationDuration")
+    public void setCoordinateAnimationDuration(RNMGLAnnotationView view, int value) {
+        view.setCoordinateAnimationDuration(value);
+    }
+
+    @ReactProp(name = "rasterize")
+    public void setRasterize(RNMGLAnnotationView view, boolean value) {
+        view.setRasterize(value);
+    }
+
+    @ReactProp(name = "rasterizeKey")
+    public void setRasterizeKey(RNMGLAnnotationView view, @Nullable String value) {
+        view.setRasterizeKey(value);
+    }
+
     @Override
     public void updateExtraData(RNMGLAnnotationView view, Object extraData) {
         // This is called from the {@link SizeReportingShadowNode}. We cache
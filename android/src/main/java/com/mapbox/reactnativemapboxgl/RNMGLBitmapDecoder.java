@@ -0,0 +1,95 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Decodes images straight to the size they are displayed at. A bounds-only pass picks the
+ * largest inSampleSize that keeps the image at least as big as the requested size, the sampled
+ * decode reuses a pooled bitmap when possible, and the result is scaled to the exact size.
+ */
+public class RNMGLBitmapDecoder {
+
+    private static final long POOL_BYTES = 4 * 1024 * 1024;
+    private static final Bitmap.Config CONFIG = Bitmap.Config.ARGB_8888;
+
+    private interface Source {
+        @Nullable Bitmap decode(BitmapFactory.Options options);
+    }
+
+    private final RNMGLBitmapPool _pool = new RNMGLBitmapPool(POOL_BYTES);
+
+    public @Nullable Bitmap decodeFile(final String path, int width, int height) {
+        return decode(new Source() {
+            @Override
+            public Bitmap decode(BitmapFactory.Options options) {
+                return BitmapFactory.decodeFile(path, options);
+            }
+        }, width, height);
+    }
+
+    /**
+     * Returns null if the resource is not a bitmap, e.g. a vector or XML drawable.
+     */
+    public @Nullable Bitmap decodeResource(final Resources resources, final int resId, int width, int height) {
+        return decode(new Source() {
+            @Override
+            public Bitmap decode(BitmapFactory.Options options) {
+                return BitmapFactory.decodeResource(resources, resId, options);
+            }
+        }, width, height);
+    }
+
+    private @Nullable Bitmap decode(Source source, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        source.decode(options);
+
+        int sourceWidth = options.outWidth;
+        int sourceHeight = options.outHeight;
+        if (sourceWidth <= 0 || sourceHeight <= 0) { return null; }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = computeInSampleSize(sourceWidth, sourceHeight, width, height);
+        options.inPreferredConfig = CONFIG;
+        options.inMutable = true;
+        options.inBitmap = _pool.take(sourceWidth, sourceHeight, options.inSampleSize, CONFIG);
+
+        Bitmap decoded;
+        try {
+            decoded = source.decode(options);
+        } catch (IllegalArgumentException e) {
+            if (options.inBitmap == null) { throw e; }
+            // The pooled bitmap could not be reused after all
+            _pool.release(options.inBitmap);
+            options.inBitmap = null;
+            decoded = source.decode(options);
+        }
+        if (decoded == null) {
+            if (options.inBitmap != null) { _pool.release(options.inBitmap); }
+            return null;
+        }
+
+        if (decoded.getWidth() == width && decoded.getHeight() == height) {
+            return decoded;
+        }
+
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+        if (scaled != decoded) {
+            _pool.release(decoded);
+        }
+        return scaled;
+    }
+
+    static int computeInSampleSize(int sourceWidth, int sourceHeight, int width, int height) {
+        int inSampleSize = 1;
+        while (sourceWidth / (inSampleSize * 2) >= width && sourceHeight / (inSampleSize * 2) >= height) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import javax.annotation.Nullable;
+
+/**
+ * A size-bounded pool of mutable bitmaps that can be handed to BitmapFactory as inBitmap.
+ */
+public class RNMGLBitmapPool {
+
+    private final long _maxBytes;
+    private final LinkedList<Bitmap> _bitmaps = new LinkedList<>();
+    private long _bytes = 0;
+
+    public RNMGLBitmapPool(long maxBytes) {
+        _maxBytes = maxBytes;
+    }
+
+    /**
+     * Takes a bitmap that a decode of the given size with the given inSampleSize can reuse, or
+     * returns null if there is none.
+     */
+    public synchronized @Nullable Bitmap take(int width, int height, int inSampleSize, Bitmap.Config config) {
+        Iterator<Bitmap> iterator = _bitmaps.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (canReuse(bitmap, width, height, inSampleSize, config)) {
+                iterator.remove();
+                _bytes -= byteCount(bitmap);
+                return bitmap;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void release(Bitmap bitmap) {
+        if (!bitmap.isMutable() || bitmap.isRecycled()) { return; }
+
+        long size = byteCount(bitmap);
+        if (size > _maxBytes) {
+            bitmap.recycle();
+            return;
+        }
+
+        _bitmaps.addLast(bitmap);
+        _bytes += size;
+        while (_bytes > _maxBytes) {
+            Bitmap evicted = _bitmaps.removeFirst();
+            _bytes -= byteCount(evicted);
+            evicted.recycle();
+        }
+    }
+
+    private static boolean canReuse(Bitmap bitmap, int width, int height, int inSampleSize, Bitmap.Config config) {
+        if (bitmap.getConfig() != config) { return false; }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            // Any bitmap that is large enough can be reused
+            int sampledWidth = (width + inSampleSize - 1) / inSampleSize;
+            int sampledHeight = (height + inSampleSize - 1) / inSampleSize;
+            return sampledWidth * sampledHeight * bytesPerPixel(config) <= bitmap.getAllocationByteCount();
+        }
+        // Before KitKat only same-size, unsampled decodes can reuse a bitmap
+        return inSampleSize == 1 && bitmap.getWidth() == width && bitmap.getHeight() == height;
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        if (config == Bitmap.Config.ALPHA_8) { return 1; }
+        if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) { return 2; }
+        return 4;
+    }
+
+    private static long byteCount(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return bitmap.getAllocationByteCount();
+        }
+        return bitmap.getByteCount();
+    }
+}
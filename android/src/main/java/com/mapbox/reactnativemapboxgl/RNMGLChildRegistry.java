@@ -0,0 +1,193 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.View;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The children of a map view, in React order. Annotation views are not part of the native view
+ * hierarchy, so React indices are translated to native indices by skipping them.
+ *
+ * Children are kept in an implicit treap (a randomized balanced tree ordered by position) that
+ * counts the annotation views of every subtree, so insertions, removals and index translations
+ * are O(log n) instead of shifting and scanning a list. Annotation views are also kept in a set
+ * for enumeration.
+ */
+public class RNMGLChildRegistry {
+
+    private static class Node {
+        final View view;
+        final boolean annotation;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+        int annotations;
+
+        Node(View view, int priority) {
+            this.view = view;
+            this.annotation = isAnnotationView(view);
+            this.priority = priority;
+            this.annotations = annotation ? 1 : 0;
+        }
+    }
+
+    private final Random _random = new Random();
+    private final Set<RNMGLAnnotationView> _annotationViews = new LinkedHashSet<>();
+    private Node _root;
+
+    static boolean isAnnotationView(View view) {
+        return RNMGLAnnotationView.class.equals(view.getClass());
+    }
+
+    public int size() {
+        return size(_root);
+    }
+
+    public boolean isEmpty() {
+        return _root == null;
+    }
+
+    public View get(int index) {
+        checkIndex(index, size());
+        Node node = _root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.view;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    public void add(int index, View view) {
+        checkIndex(index, size() + 1);
+        _root = insert(_root, index, new Node(view, _random.nextInt()));
+        if (isAnnotationView(view)) {
+            _annotationViews.add((RNMGLAnnotationView) view);
+        }
+    }
+
+    public View remove(int index) {
+        checkIndex(index, size());
+        View[] removed = new View[1];
+        _root = remove(_root, index, removed);
+        if (isAnnotationView(removed[0])) {
+            _annotationViews.remove(removed[0]);
+        }
+        return removed[0];
+    }
+
+    /**
+     * The index among the children that are not annotation views.
+     */
+    public int nativeIndex(int index) {
+        int annotationsBefore = 0;
+        int remaining = index;
+        Node node = _root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (remaining <= leftSize) {
+                node = node.left;
+            } else {
+                annotationsBefore += annotations(node.left) + (node.annotation ? 1 : 0);
+                remaining -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return index - annotationsBefore;
+    }
+
+    public Collection<RNMGLAnnotationView> getAnnotationViews() {
+        return Collections.unmodifiableSet(_annotationViews);
+    }
+
+    // Treap
+
+    private static Node insert(Node node, int index, Node inserted) {
+        if (node == null) { return inserted; }
+
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, inserted);
+            if (node.left.priority > node.priority) { node = rotateRight(node); }
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, inserted);
+            if (node.right.priority > node.priority) { node = rotateLeft(node); }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node remove(Node node, int index, View[] removed) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            node.left = remove(node.left, index, removed);
+        } else if (index > leftSize) {
+            node.right = remove(node.right, index - leftSize - 1, removed);
+        } else {
+            removed[0] = node.view;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) { return right; }
+        if (right == null) { return left; }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.annotations = (node.annotation ? 1 : 0) + annotations(node.left) + annotations(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int annotations(Node node) {
+        return node == null ? 0 : node.annotations;
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.mapbox.mapboxsdk.annotations.Icon;
+import com.mapbox.mapboxsdk.annotations.IconFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Loads annotation icons. Remote images are fetched and decoded on a small worker pool and kept
+ * in a disk cache, and decoded icons are kept in a memory cache bounded by bitmap size.
+ * Concurrent requests for the same image share a single fetch.
+ */
+public class RNMGLIconLoader {
+
+    private static final String TAG = RNMGLIconLoader.class.getSimpleName();
+
+    private static final int WORKER_COUNT = 3;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 15000;
+    private static final long DISK_CACHE_BYTES = 10 * 1024 * 1024;
+    private static final String DISK_CACHE_DIR = "rnmgl-icons";
+    private static final int CLUSTER_FILL_COLOR = 0xE63887BE;
+    private static final int CLUSTER_STROKE_COLOR = Color.WHITE;
+
+    public interface Listener {
+        void onIconLoaded(Icon icon);
+
+        // The image could not be fetched or decoded
+        void onIconFailed();
+    }
+
+    /**
+     * Downloads a remote image into a file.
+     */
+    interface Fetcher {
+        void fetch(String url, File destination) throws IOException;
+    }
+
+    static final Fetcher HTTP_FETCHER = new Fetcher() {
+        @Override
+        public void fetch(String url, File destination) throws IOException {
+            URLConnection connection = new URL(url).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            try {
+                if (connection instanceof HttpURLConnection) {
+                    int status = ((HttpURLConnection) connection).getResponseCode();
+                    if (status < 200 || status >= 300) {
+                        throw new IOException("Unexpected HTTP status " + status);
+                    }
+                }
+
+                InputStream input = connection.getInputStream();
+                OutputStream output = new FileOutputStream(destination);
+                try {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = input.read(buffer)) != -1) {
+                        output.write(buffer, 0, read);
+                    }
+                } finally {
+                    output.close();
+                    input.close();
+                }
+            } finally {
+                if (connection instanceof HttpURLConnection) {
+                    ((HttpURLConnection) connection).disconnect();
+                }
+            }
+        }
+    };
+
+    private static RNMGLIconLoader instance;
+
+    public static synchronized RNMGLIconLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new RNMGLIconLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private final Context _context;
+    private final IconFactory _iconFactory;
+    private final RNMGLBitmapDecoder _decoder = new RNMGLBitmapDecoder();
+    private final LruCache<String, Icon> _memoryCache;
+    private final File _diskCacheDir;
+    private final ExecutorService _workers;
+    private final Executor _mainThread;
+    private final Fetcher _fetcher;
+    private final Map<String, List<Listener>> _inFlight = new HashMap<>();
+
+    private RNMGLIconLoader(Context context) {
+        this(context, IconFactory.getInstance(context), new File(context.getCacheDir(), DISK_CACHE_DIR),
+                Executors.newFixedThreadPool(WORKER_COUNT, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "RNMGLIconLoader");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }),
+                new Executor() {
+                    private final Handler _handler = new Handler(Looper.getMainLooper());
+
+                    @Override
+                    public void execute(Runnable runnable) {
+                        _handler.post(runnable);
+                    }
+                },
+                HTTP_FETCHER);
+    }
+
+    /**
+     * @param workers fetch and decode icons
+     * @param mainThread calls the listeners
+     */
+    RNMGLIconLoader(Context context, IconFactory iconFactory, File diskCacheDir, ExecutorService workers,
+                    Executor mainThread, Fetcher fetcher) {
+        _context = context;
+        _iconFactory = iconFactory;
+        _diskCacheDir = diskCacheDir;
+        _workers = workers;
+        _mainThread = mainThread;
+        _fetcher = fetcher;
+
+        int memoryCacheBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 16, 32 * 1024 * 1024);
+        _memoryCache = new LruCache<String, Icon>(memoryCacheBytes) {
+            @Override
+            protected int sizeOf(String key, Icon icon) {
+                return icon.getBitmap().getByteCount();
+            }
+        };
+    }
+
+    static String cacheKey(String uri, int width, int height) {
+        return uri + "||" + width + "||" + height;
+    }
+
+    // Memory tier
+
+    public @Nullable Icon getCachedIcon(String uri, int width, int height) {
+        return _memoryCache.get(cacheKey(uri, width, height));
+    }
+
+    public void putCachedIcon(String uri, int width, int height, Icon icon) {
+        _memoryCache.put(cacheKey(uri, width, height), icon);
+    }
+
+    // Takes a key made by cacheKey, for callers that remember what they cached
+    void removeCachedIcon(String key) {
+        _memoryCache.remove(key);
+    }
+
+    /**
+     * A transparent icon of the requested size, used while the real icon is loading.
+     */
+    public Icon getPlaceholder(int width, int height) {
+        String key = cacheKey("placeholder", width, height);
+        Icon icon = _memoryCache.get(key);
+        if (icon != null) { return icon; }
+
+        Bitmap bitmap = Bitmap.createBitmap(Math.max(width, 1), Math.max(height, 1), Bitmap.Config.ARGB_8888);
+        icon = createIcon(bitmap);
+        _memoryCache.put(key, icon);
+        return icon;
+    }
+
+    public Icon getDefaultIcon() {
+        synchronized (_iconFactory) {
+            return _iconFactory.defaultMarker();
+        }
+    }
+
+    /**
+     * A circle labelled with the point count, for cluster markers.
+     */
+    public Icon getClusterIcon(int pointCount) {
+        String label = pointCount < 1000 ? String.valueOf(pointCount) : (pointCount / 1000) + "k";
+        int diameterDp = pointCount < 10 ? 30 : pointCount < 100 ? 36 : pointCount < 1000 ? 42 : 48;
+        String key = cacheKey("cluster:" + label, diameterDp, diameterDp);
+        Icon icon = _memoryCache.get(key);
+        if (icon != null) { return icon; }
+
+        float density = _context.getResources().getDisplayMetrics().density;
+        int diameter = Math.round(diameterDp * density);
+        float radius = diameter / 2f;
+
+        Bitmap bitmap = Bitmap.createBitmap(diameter, diameter, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(CLUSTER_STROKE_COLOR);
+        canvas.drawCircle(radius, radius, radius, paint);
+        paint.setColor(CLUSTER_FILL_COLOR);
+        canvas.drawCircle(radius, radius, radius - 2 * density, paint);
+
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(diameter / 3f);
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        paint.setTextAlign(Paint.Align.CENTER);
+        canvas.drawText(label, radius, radius - (paint.descent() + paint.ascent()) / 2, paint);
+
+        icon = createIcon(bitmap);
+        _memoryCache.put(key, icon);
+        return icon;
+    }
+
+    // Icon creation
+
+    Icon iconFromDrawable(Drawable drawable, int width, int height) {
+        int intrinsicWidth = drawable.getIntrinsicWidth();
+        int intrinsicHeight = drawable.getIntrinsicHeight();
+
+        if (width < 0) { width = intrinsicWidth; }
+        if (height < 0) { height = intrinsicHeight; }
+
+        // Check if a rescale would be superfluous
+        if ((drawable instanceof BitmapDrawable) && width == intrinsicWidth && height == intrinsicHeight) {
+            return createIcon(((BitmapDrawable) drawable).getBitmap());
+        }
+        // IconFactory hands out sequential icon ids without synchronization
+        synchronized (_iconFactory) {
+            return _iconFactory.fromDrawable(drawable, width, height);
+        }
+    }
+
+    /**
+     * Decodes a bundled bitmap resource directly at the requested size. Returns null if the size
+     * is unknown or the resource is not a bitmap, in which case the drawable has to be used.
+     */
+    @Nullable Icon iconFromResource(int resId, int width, int height) {
+        if (width <= 0 || height <= 0) { return null; }
+        Bitmap bitmap = _decoder.decodeResource(_context.getResources(), resId, width, height);
+        return bitmap == null ? null : createIcon(bitmap);
+    }
+
+    Icon iconFromBitmap(Bitmap bitmap) {
+        return createIcon(bitmap);
+    }
+
+    private Icon createIcon(Bitmap bitmap) {
+        synchronized (_iconFactory) {
+            return _iconFactory.fromBitmap(bitmap);
+        }
+    }
+
+    // Async loading
+
+    /**
+     * Loads a remote icon. The listener is called on the UI thread once loading succeeds or fails.
+     */
+    public void load(final String url, final int width, final int height, Listener listener) {
+        final String key = cacheKey(url, width, height);
+
+        synchronized (_inFlight) {
+            List<Listener> listeners = _inFlight.get(key);
+            if (listeners != null) {
+                listeners.add(listener);
+                return;
+            }
+            listeners = new ArrayList<>();
+            listeners.add(listener);
+            _inFlight.put(key, listeners);
+        }
+
+        _workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                Icon icon = null;
+                try {
+                    icon = _memoryCache.get(key);
+                    if (icon == null) {
+                        icon = fetchAndDecode(url, width, height);
+                        _memoryCache.put(key, icon);
+                    }
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not load annotation image " + url, e);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Could not load annotation image " + url, e);
+                } finally {
+                    // Whatever happened, or later loads of this image would wait on this one forever
+                    deliver(key, icon);
+                }
+            }
+        });
+    }
+
+    private void deliver(final String key, @Nullable final Icon icon) {
+        _mainThread.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<Listener> listeners;
+                synchronized (_inFlight) {
+                    listeners = _inFlight.remove(key);
+                }
+                if (listeners == null) { return; }
+                for (Listener listener : listeners) {
+                    if (icon == null) {
+                        listener.onIconFailed();
+                    } else {
+                        listener.onIconLoaded(icon);
+                    }
+                }
+            }
+        });
+    }
+
+    private Icon fetchAndDecode(String url, int width, int height) throws IOException {
+        File file = fetchToDisk(url);
+        boolean sized = width > 0 && height > 0;
+        Bitmap bitmap = sized
+                ? _decoder.decodeFile(file.getPath(), width, height)
+                : BitmapFactory.decodeFile(file.getPath());
+        if (bitmap == null) {
+            file.delete();
+            throw new IOException("Could not decode image");
+        }
+        if (sized) {
+            // Already decoded at the display size
+            return createIcon(bitmap);
+        }
+        return iconFromDrawable(new BitmapDrawable(_context.getResources(), bitmap), width, height);
+    }
+
+    // Disk tier
+
+    private File fetchToDisk(String url) throws IOException {
+        File file = new File(_diskCacheDir, diskCacheName(url));
+        if (file.exists()) {
+            file.setLastModified(System.currentTimeMillis());
+            return file;
+        }
+
+        if (!_diskCacheDir.exists() && !_diskCacheDir.mkdirs()) {
+            throw new IOException("Could not create icon cache directory");
+        }
+
+        File tmp = File.createTempFile(file.getName(), ".tmp", _diskCacheDir);
+        try {
+            _fetcher.fetch(url, tmp);
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not move downloaded image into the icon cache");
+            }
+        } finally {
+            tmp.delete();
+        }
+
+        trimDiskCache();
+        return file;
+    }
+
+    private void trimDiskCache() {
+        File[] files = _diskCacheDir.listFiles();
+        if (files == null) { return; }
+
+        long total = 0;
+        List<File> cached = new ArrayList<>(files.length);
+        for (File file : files) {
+            // Skip downloads still in progress
+            if (file.getName().endsWith(".tmp")) { continue; }
+            cached.add(file);
+            total += file.length();
+        }
+        if (total <= DISK_CACHE_BYTES) { return; }
+
+        // Oldest first
+        Collections.sort(cached, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                long diff = a.lastModified() - b.lastModified();
+                return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+            }
+        });
+
+        for (File file : cached) {
+            if (total <= DISK_CACHE_BYTES) { break; }
+            long length = file.length();
+            if (file.delete()) { total -= length; }
+        }
+    }
+
+    private static String diskCacheName(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.mapbox.reactnativemapboxgl;
+
+/**
+ * A static KD-tree over 2D points, stored in flat primitive arrays. Ported from kdbush.
+ * Queries return indices into the arrays the tree was built from.
+ */
+public class RNMGLKDBush {
+
+    /**
+     * A growable list of ints, used for query results.
+     */
+    public static class IntList {
+        private int[] _items = new int[16];
+        private int _size = 0;
+
+        public void add(int value) {
+            if (_size == _items.length) {
+                int[] items = new int[_size * 2];
+                System.arraycopy(_items, 0, items, 0, _size);
+                _items = items;
+            }
+            _items[_size++] = value;
+        }
+
+        public int get(int index) {
+            return _items[index];
+        }
+
+        public int size() {
+            return _size;
+        }
+
+        public int removeLast() {
+            return _items[--_size];
+        }
+
+        public void clear() {
+            _size = 0;
+        }
+    }
+
+    private final int _nodeSize;
+    private final int[] _ids;
+    private final double[] _coords;
+
+    public RNMGLKDBush(double[] xs, double[] ys, int count, int nodeSize) {
+        _nodeSize = nodeSize;
+        _ids = new int[count];
+        _coords = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            _ids[i] = i;
+            _coords[2 * i] = xs[i];
+            _coords[2 * i + 1] = ys[i];
+        }
+        sort(0, count - 1, 0);
+    }
+
+    public void range(double minX, double minY, double maxX, double maxY, IntList result) {
+        IntList stack = new IntList();
+        stack.add(0);
+        stack.add(_ids.length - 1);
+        stack.add(0);
+
+        while (stack.size() > 0) {
+            int axis = stack.removeLast();
+            int right = stack.removeLast();
+            int left = stack.removeLast();
+
+            if (right - left <= _nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    double x = _coords[2 * i];
+                    double y = _coords[2 * i + 1];
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) { result.add(_ids[i]); }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double x = _coords[2 * m];
+            double y = _coords[2 * m + 1];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) { result.add(_ids[m]); }
+
+            if (axis == 0 ? minX <= x : minY <= y) {
+                stack.add(left);
+                stack.add(m - 1);
+                stack.add(1 - axis);
+            }
+            if (axis == 0 ? maxX >= x : maxY >= y) {
+                stack.add(m + 1);
+                stack.add(right);
+                stack.add(1 - axis);
+            }
+        }
+    }
+
+    public void within(double qx, double qy, double r, IntList result) {
+        IntList stack = new IntList();
+        stack.add(0);
+        stack.add(_ids.length - 1);
+        stack.add(0);
+        double r2 = r * r;
+
+        while (stack.size() > 0) {
+            int axis = stack.removeLast();
+            int right = stack.removeLast();
+            int left = stack.removeLast();
+
+            if (right - left <= _nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    if (sqDist(_coords[2 * i], _coords[2 * i + 1], qx, qy) <= r2) { result.add(_ids[i]); }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double x = _coords[2 * m];
+            double y = _coords[2 * m + 1];
+            if (sqDist(x, y, qx, qy) <= r2) { result.add(_ids[m]); }
+
+            if (axis == 0 ? qx - r <= x : qy - r <= y) {
+                stack.add(left);
+                stack.add(m - 1);
+                stack.add(1 - axis);
+            }
+            if (axis == 0 ? qx + r >= x : qy + r >= y) {
+                stack.add(m + 1);
+                stack.add(right);
+                stack.add(1 - axis);
+            }
+        }
+    }
+
+    private static double sqDist(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+
+    // Building
+
+    private void sort(int left, int right, int axis) {
+        if (right - left <= _nodeSize) { return; }
+
+        int m = (left + right) >> 1;
+        select(m, left, right, axis);
+
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    // Floyd-Rivest selection: partially sorts so that item k is in place along the axis
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            if (right - left > 600) {
+                int n = right - left + 1;
+                int m = k - left + 1;
+                double z = Math.log(n);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * (m - n / 2 < 0 ? -1 : 1);
+                int newLeft = Math.max(left, (int) Math.floor(k - m * s / n + sd));
+                int newRight = Math.min(right, (int) Math.floor(k + (n - m) * s / n + sd));
+                select(k, newLeft, newRight, axis);
+            }
+
+            double t = _coords[2 * k + axis];
+            int i = left;
+            int j = right;
+
+            swapItem(left, k);
+            if (_coords[2 * right + axis] > t) { swapItem(left, right); }
+
+            while (i < j) {
+                swapItem(i, j);
+                i++;
+                j--;
+                while (_coords[2 * i + axis] < t) { i++; }
+                while (_coords[2 * j + axis] > t) { j--; }
+            }
+
+            if (_coords[2 * left + axis] == t) {
+                swapItem(left, j);
+            } else {
+                j++;
+                swapItem(j, right);
+            }
+
+            if (j <= k) { left = j + 1; }
+            if (k <= j) { right = j - 1; }
+        }
+    }
+
+    private void swapItem(int i, int j) {
+        int id = _ids[i];
+        _ids[i] = _ids[j];
+        _ids[j] = id;
+
+        double x = _coords[2 * i];
+        double y = _coords[2 * i + 1];
+        _coords[2 * i] = _coords[2 * j];
+        _coords[2 * i + 1] = _coords[2 * j + 1];
+        _coords[2 * j] = x;
+        _coords[2 * j + 1] = y;
+    }
+}
@@ -0,0 +1,282 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.support.annotation.UiThread;
+import android.view.Choreographer;
+
+import com.mapbox.mapboxsdk.annotations.Marker;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Moves markers on the map. Position changes are collected and applied together on the next
+ * frame, either at once or interpolated over a duration with an easing curve.
+ *
+ * Active moves are kept in parallel primitive arrays, so a frame only allocates the positions it
+ * sets.
+ */
+@UiThread
+public class RNMGLMarkerAnimator implements Choreographer.FrameCallback {
+
+    public static final int EASING_LINEAR = 0;
+    public static final int EASING_EASE_IN = 1;
+    public static final int EASING_EASE_OUT = 2;
+    public static final int EASING_EASE_IN_OUT = 3;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public interface Listener {
+        // Called after a frame in which at least one move reached its target
+        void onMovesFinished();
+    }
+
+    // Where frames come from, the Choreographer unless a benchmark drives the frames itself
+    interface FrameScheduler {
+        void postFrameCallback(Choreographer.FrameCallback callback);
+        void removeFrameCallback(Choreographer.FrameCallback callback);
+    }
+
+    private static final FrameScheduler CHOREOGRAPHER = new FrameScheduler() {
+        @Override
+        public void postFrameCallback(Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().postFrameCallback(callback);
+        }
+
+        @Override
+        public void removeFrameCallback(Choreographer.FrameCallback callback) {
+            Choreographer.getInstance().removeFrameCallback(callback);
+        }
+    };
+
+    private final Listener _listener;
+    private final FrameScheduler _frameScheduler;
+
+    private Marker[] _markers = new Marker[INITIAL_CAPACITY];
+    private double[] _fromLatitudes = new double[INITIAL_CAPACITY];
+    private double[] _fromLongitudes = new double[INITIAL_CAPACITY];
+    private double[] _toLatitudes = new double[INITIAL_CAPACITY];
+    private double[] _toLongitudes = new double[INITIAL_CAPACITY];
+    private long[] _startNanos = new long[INITIAL_CAPACITY];
+    private long[] _durationNanos = new long[INITIAL_CAPACITY];
+    private int[] _easings = new int[INITIAL_CAPACITY];
+    private int _count = 0;
+    private final Map<Marker, Integer> _slots = new HashMap<>();
+
+    private boolean _scheduled = false;
+    private int _frameCount = 0;
+    private int _positionUpdateCount = 0;
+
+    public RNMGLMarkerAnimator(Listener listener) {
+        this(listener, CHOREOGRAPHER);
+    }
+
+    RNMGLMarkerAnimator(Listener listener, FrameScheduler frameScheduler) {
+        _listener = listener;
+        _frameScheduler = frameScheduler;
+    }
+
+    public static int easingFromJS(@Nullable String easing) {
+        if ("easeIn".equals(easing)) { return EASING_EASE_IN; }
+        if ("easeOut".equals(easing)) { return EASING_EASE_OUT; }
+        if ("easeInOut".equals(easing)) { return EASING_EASE_IN_OUT; }
+        return EASING_LINEAR;
+    }
+
+    public void moveTo(Marker marker, LatLng target, long durationMs) {
+        moveTo(marker, target.getLatitude(), target.getLongitude(), durationMs, EASING_LINEAR);
+    }
+
+    /**
+     * Moves a marker to a position on the next frame, or over a duration if it is positive. A move
+     * that is already running continues from the marker's current interpolated position.
+     */
+    public void moveTo(Marker marker, double latitude, double longitude, long durationMs, int easing) {
+        long now = System.nanoTime();
+        Integer slot = _slots.get(marker);
+        int i;
+        if (slot != null) {
+            i = slot;
+            double t = ease(_easings[i], progress(i, now));
+            _fromLatitudes[i] = interpolate(_fromLatitudes[i], _toLatitudes[i], t);
+            _fromLongitudes[i] = interpolate(_fromLongitudes[i], _toLongitudes[i], t);
+        } else {
+            i = _count++;
+            ensureCapacity(_count);
+            _markers[i] = marker;
+            _slots.put(marker, i);
+            _fromLatitudes[i] = marker.getPosition().getLatitude();
+            _fromLongitudes[i] = marker.getPosition().getLongitude();
+        }
+
+        _toLatitudes[i] = latitude;
+        _toLongitudes[i] = longitude;
+        // Go the short way around the antimeridian
+        double deltaLongitude = _toLongitudes[i] - _fromLongitudes[i];
+        if (deltaLongitude > 180) {
+            _toLongitudes[i] -= 360;
+        } else if (deltaLongitude < -180) {
+            _toLongitudes[i] += 360;
+        }
+        _startNanos[i] = now;
+        _durationNanos[i] = durationMs * 1000000;
+        _easings[i] = easing;
+
+        schedule();
+    }
+
+    public void cancel(Marker marker) {
+        Integer slot = _slots.get(marker);
+        if (slot != null) { removeSlot(slot); }
+    }
+
+    public boolean isMoving(Marker marker) {
+        return _slots.containsKey(marker);
+    }
+
+    /**
+     * Returns where a marker is moving to, or null if it isn't moving.
+     */
+    @Nullable
+    public LatLng getTarget(Marker marker) {
+        Integer slot = _slots.get(marker);
+        if (slot == null) { return null; }
+        return new LatLng(_toLatitudes[slot], wrap(_toLongitudes[slot]));
+    }
+
+    public void clear() {
+        for (int i = 0; i < _count; i++) {
+            _markers[i] = null;
+        }
+        _count = 0;
+        _slots.clear();
+        if (_scheduled) {
+            _scheduled = false;
+            _frameScheduler.removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        _scheduled = false;
+        _frameCount++;
+
+        // Backwards, so that finished moves can be swapped out with the last slot
+        boolean finished = false;
+        for (int i = _count - 1; i >= 0; i--) {
+            double t = progress(i, frameTimeNanos);
+            double eased = ease(_easings[i], t);
+            double latitude = interpolate(_fromLatitudes[i], _toLatitudes[i], eased);
+            double longitude = interpolate(_fromLongitudes[i], _toLongitudes[i], eased);
+            _markers[i].setPosition(new LatLng(latitude, wrap(longitude)));
+            _positionUpdateCount++;
+            if (t >= 1) {
+                removeSlot(i);
+                finished = true;
+            }
+        }
+
+        if (_count > 0) { schedule(); }
+        // Last, the listener may start or cancel moves
+        if (finished) { _listener.onMovesFinished(); }
+    }
+
+    public int getActiveCount() {
+        return _count;
+    }
+
+    public int getFrameCount() {
+        return _frameCount;
+    }
+
+    public int getPositionUpdateCount() {
+        return _positionUpdateCount;
+    }
+
+    private double progress(int i, long nowNanos) {
+        if (_durationNanos[i] <= 0) { return 1; }
+        double t = (double) (nowNanos - _startNanos[i]) / _durationNanos[i];
+        return t < 0 ? 0 : t > 1 ? 1 : t;
+    }
+
+    private static double ease(int easing, double t) {
+        switch (easing) {
+            case EASING_EASE_IN:
+                return t * t;
+            case EASING_EASE_OUT:
+                return t * (2 - t);
+            case EASING_EASE_IN_OUT:
+                return t < 0.5 ? 2 * t * t : -1 + (4 - 2 * t) * t;
+            default:
+                return t;
+        }
+    }
+
+    private static double wrap(double longitude) {
+        if (longitude > 180) { return longitude - 360; }
+        if (longitude < -180) { return longitude + 360; }
+        return longitude;
+    }
+
+    private static double interpolate(double from, double to, double t) {
+        return from + (to - from) * t;
+    }
+
+    private void schedule() {
+        if (_scheduled) { return; }
+        _scheduled = true;
+        _frameScheduler.postFrameCallback(this);
+    }
+
+    private void removeSlot(int i) {
+        _slots.remove(_markers[i]);
+        int last = --_count;
+        if (i != last) {
+            _markers[i] = _markers[last];
+            _fromLatitudes[i] = _fromLatitudes[last];
+            _fromLongitudes[i] = _fromLongitudes[last];
+            _toLatitudes[i] = _toLatitudes[last];
+            _toLongitudes[i] = _toLongitudes[last];
+            _startNanos[i] = _startNanos[last];
+            _durationNanos[i] = _durationNanos[last];
+            _easings[i] = _easings[last];
+            _slots.put(_markers[i], i);
+        }
+        _markers[last] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= _markers.length) { return; }
+        int size = Math.max(capacity, _markers.length * 2);
+        Marker[] markers = new Marker[size];
+        System.arraycopy(_markers, 0, markers, 0, _markers.length);
+        _markers = markers;
+        _fromLatitudes = grow(_fromLatitudes, size);
+        _fromLongitudes = grow(_fromLongitudes, size);
+        _toLatitudes = grow(_toLatitudes, size);
+        _toLongitudes = grow(_toLongitudes, size);
+        _startNanos = grow(_startNanos, size);
+        _durationNanos = grow(_durationNanos, size);
+        _easings = grow(_easings, size);
+    }
+
+    private static double[] grow(double[] array, int size) {
+        double[] result = new double[size];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    private static int[] grow(int[] array, int size) {
+        int[] result = new int[size];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    private static long[] grow(long[] array, int size) {
+        long[] result = new long[size];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+}
@@ -0,0 +1,183 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Clusters the marker annotations of a map view. The cluster index is built on a background
+ * thread from a snapshot of the marker positions; changes that arrive during a build are
+ * coalesced into a single rebuild once it completes.
+ *
+ * All methods must be called on the UI thread.
+ */
+public class RNMGLMarkerClusterer {
+
+    private static final String TAG = RNMGLMarkerClusterer.class.getSimpleName();
+
+    private static final int MIN_ZOOM = 0;
+    private static final int MAX_ZOOM = 16;
+
+    public interface Listener {
+        // Called on the UI thread when a new index replaced the previous one
+        void onClustersChanged();
+    }
+
+    private static ExecutorService builder;
+
+    private static synchronized ExecutorService getBuilder() {
+        if (builder == null) {
+            builder = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "RNMGLClusterBuilder");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return builder;
+    }
+
+    private final Map<String, RNMGLAnnotationOptions> _annotations;
+    private final Listener _listener;
+    private final Handler _mainHandler = new Handler(Looper.getMainLooper());
+
+    private int _radius = 40;
+    private RNMGLSupercluster _index;
+    private String[] _names;
+    private boolean _building = false;
+    private boolean _dirty = false;
+    private boolean _released = false;
+    private long _lastBuildNanos = 0;
+
+    public RNMGLMarkerClusterer(Map<String, RNMGLAnnotationOptions> annotations, Listener listener) {
+        _annotations = annotations;
+        _listener = listener;
+    }
+
+    public void setRadius(int radius) {
+        if (_radius == radius) { return; }
+        _radius = radius;
+        invalidate();
+    }
+
+    /**
+     * Schedules a rebuild of the index from the current annotations.
+     */
+    public void invalidate() {
+        _released = false;
+        if (_building) {
+            _dirty = true;
+            return;
+        }
+        _building = true;
+        _dirty = false;
+
+        // Snapshot the marker positions, the build must not read the live map
+        final String[] names = new String[_annotations.size()];
+        final double[] latitudes = new double[names.length];
+        final double[] longitudes = new double[names.length];
+        int count = 0;
+        for (Map.Entry<String, RNMGLAnnotationOptions> entry : _annotations.entrySet()) {
+            if (!(entry.getValue() instanceof RNMGLMarkerOptions)) { continue; }
+            LatLng position = ((RNMGLMarkerOptions) entry.getValue()).getPosition();
+            names[count] = entry.getKey();
+            latitudes[count] = position.getLatitude();
+            longitudes[count] = position.getLongitude();
+            count++;
+        }
+
+        final int pointCount = count;
+        final double radius = _radius;
+        getBuilder().execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                final RNMGLSupercluster index = new RNMGLSupercluster(latitudes, longitudes, pointCount, radius, MIN_ZOOM, MAX_ZOOM);
+                final long buildNanos = System.nanoTime() - start;
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "Clustered " + pointCount + " markers in " + buildNanos / 1000000 + "ms");
+                }
+
+                _mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        _building = false;
+                        _lastBuildNanos = buildNanos;
+                        if (_released) { return; }
+                        if (_dirty) {
+                            invalidate();
+                            return;
+                        }
+                        _index = index;
+                        _names = names;
+                        _listener.onClustersChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops the index, a later invalidate() builds a new one.
+     */
+    public void release() {
+        _released = true;
+        _dirty = false;
+        _index = null;
+        _names = null;
+    }
+
+    public boolean isReady() {
+        return _index != null;
+    }
+
+    /**
+     * Collects the unclustered markers and the clusters intersecting a box at a zoom level.
+     */
+    public void query(double south, double west, double north, double east, double zoom,
+                      Collection<String> leaves, List<RNMGLSupercluster.Node> clusters) {
+        if (_index == null) { return; }
+
+        List<RNMGLSupercluster.Node> nodes = new ArrayList<>();
+        _index.getClusters(south, west, north, east, zoom, nodes);
+        for (RNMGLSupercluster.Node node : nodes) {
+            if (node.isCluster()) {
+                clusters.add(node);
+            } else {
+                leaves.add(_names[node.getPointIndex()]);
+            }
+        }
+    }
+
+    public String[] getLeaves(int clusterId) {
+        if (_index == null) { return new String[0]; }
+        RNMGLKDBush.IntList indices = new RNMGLKDBush.IntList();
+        _index.getLeaves(clusterId, indices);
+        String[] leaves = new String[indices.size()];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = _names[indices.get(i)];
+        }
+        return leaves;
+    }
+
+    public int getExpansionZoom(int clusterId) {
+        if (_index == null) { return MAX_ZOOM + 1; }
+        return _index.getClusterExpansionZoom(clusterId);
+    }
+
+    public long getLastBuildNanos() {
+        return _lastBuildNanos;
+    }
+}
@@ -0,0 +1,188 @@
+package com.mapbox.reactnativemapboxgl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Limits how many offline packs download at once. Packs waiting for a slot are started in the
+ * order they were requested, or by priority first. A slot is handed to the next pack when an
+ * active one finishes, fails, is suspended or is removed.
+ *
+ * Not thread safe, meant to be used from the main thread.
+ */
+class RNMGLOfflineDownloadScheduler {
+
+    /**
+     * Something that can be downloaded, such as an offline region.
+     */
+    interface Download {
+        void setActive(boolean active);
+    }
+
+    public static final int ORDER_FIFO = 0;
+    public static final int ORDER_PRIORITY = 1;
+
+    private static class Entry {
+        final Download download;
+        int priority;
+        long sequence;
+
+        Entry(Download download, int priority) {
+            this.download = download;
+            this.priority = priority;
+        }
+    }
+
+    private static final Comparator<Entry> FIFO = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            return a.sequence < b.sequence ? -1 : a.sequence > b.sequence ? 1 : 0;
+        }
+    };
+
+    private static final Comparator<Entry> BY_PRIORITY = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            if (a.priority != b.priority) { return a.priority > b.priority ? -1 : 1; }
+            return FIFO.compare(a, b);
+        }
+    };
+
+    private final Map<Download, Entry> _entries = new HashMap<>();
+    private final Set<Entry> _active = new LinkedHashSet<>();
+    private PriorityQueue<Entry> _queue = new PriorityQueue<>(11, FIFO);
+    private int _order = ORDER_FIFO;
+    // 0 for no limit
+    private int _maxActive = 0;
+    private long _nextSequence = 0;
+
+    public void setMaxActive(int maxActive) {
+        _maxActive = Math.max(0, maxActive);
+        promote();
+    }
+
+    public void setOrder(int order) {
+        if (order == _order) { return; }
+        _order = order;
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Math.max(11, _queue.size()), order == ORDER_PRIORITY ? BY_PRIORITY : FIFO);
+        queue.addAll(_queue);
+        _queue = queue;
+    }
+
+    /**
+     * Starts a download if a slot is free, or queues it. Does nothing if it's already active or
+     * queued.
+     */
+    public void request(Download download, int priority) {
+        if (_entries.containsKey(download)) { return; }
+        Entry entry = new Entry(download, priority);
+        _entries.put(download, entry);
+        enqueue(entry);
+        promote();
+    }
+
+    public void setPriority(Download download, int priority) {
+        Entry entry = _entries.get(download);
+        if (entry == null || entry.priority == priority) { return; }
+        if (_queue.remove(entry)) {
+            entry.priority = priority;
+            _queue.add(entry);
+        } else {
+            entry.priority = priority;
+        }
+    }
+
+    /**
+     * Stops a download, or takes it out of the queue.
+     */
+    public void suspend(Download download) {
+        Entry entry = _entries.remove(download);
+        if (entry == null) { return; }
+        if (_active.remove(entry)) {
+            download.setActive(false);
+            promote();
+        } else {
+            _queue.remove(entry);
+        }
+    }
+
+    /**
+     * Forgets a download that was deleted, without touching it.
+     */
+    public void remove(Download download) {
+        Entry entry = _entries.remove(download);
+        if (entry == null) { return; }
+        if (_active.remove(entry)) {
+            promote();
+        } else {
+            _queue.remove(entry);
+        }
+    }
+
+    /**
+     * Releases the slot of a download that completed.
+     */
+    public void onComplete(Download download) {
+        Entry entry = _entries.get(download);
+        if (entry == null || !_active.contains(entry)) { return; }
+        _entries.remove(download);
+        _active.remove(entry);
+        download.setActive(false);
+        promote();
+    }
+
+    /**
+     * Moves a download that failed behind the other queued downloads of the same priority, so that
+     * it doesn't hold on to its slot while they wait.
+     */
+    public void onError(Download download) {
+        Entry entry = _entries.get(download);
+        if (entry == null || !_active.contains(entry) || _queue.isEmpty()) { return; }
+        _active.remove(entry);
+        download.setActive(false);
+        enqueue(entry);
+        promote();
+    }
+
+    public boolean isActive(Download download) {
+        Entry entry = _entries.get(download);
+        return entry != null && _active.contains(entry);
+    }
+
+    public boolean isQueued(Download download) {
+        Entry entry = _entries.get(download);
+        return entry != null && !_active.contains(entry);
+    }
+
+    public int getActiveCount() {
+        return _active.size();
+    }
+
+    public int getQueuedCount() {
+        return _queue.size();
+    }
+
+    private void enqueue(Entry entry) {
+        entry.sequence = _nextSequence++;
+        _queue.add(entry);
+    }
+
+    private void promote() {
+        List<Entry> started = new ArrayList<>();
+        while (!_queue.isEmpty() && (_maxActive == 0 || _active.size() < _maxActive)) {
+            Entry entry = _queue.poll();
+            _active.add(entry);
+            started.add(entry);
+        }
+        // Started once the state is consistent, as starting may report status synchronously
+        for (Entry entry : started) {
+            entry.download.setActive(true);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.util.Log;
+
+import com.mapbox.mapboxsdk.offline.OfflineRegion;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import javax.annotation.Nullable;
+
+/**
+ * Name and user metadata of an offline pack, stored in the metadata of its offline region.
+ *
+ * The format is a magic number and a version byte, followed by the name and the metadata as
+ * length-prefixed UTF-8 strings, with a length of -1 for null. Packs created by earlier versions
+ * hold both strings written with an ObjectOutputStream, these are still read.
+ */
+class RNMGLOfflineMetadata {
+
+    private static final String TAG = RNMGLOfflineMetadata.class.getSimpleName();
+
+    // Can't be mistaken for the 0xACED magic number of Java serialization
+    private static final byte[] MAGIC = { 'R', 'N', 'M', 'G' };
+    private static final byte VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    static final RNMGLOfflineMetadata EMPTY = new RNMGLOfflineMetadata(null, null);
+
+    private final String _name;
+    private final String _metadata;
+
+    RNMGLOfflineMetadata(@Nullable String name, @Nullable String metadata) {
+        _name = name;
+        _metadata = metadata;
+    }
+
+    @Nullable
+    public String getName() {
+        return _name;
+    }
+
+    @Nullable
+    public String getMetadata() {
+        return _metadata;
+    }
+
+    public byte[] encode() {
+        byte[] name = _name == null ? null : _name.getBytes(UTF_8);
+        byte[] metadata = _metadata == null ? null : _metadata.getBytes(UTF_8);
+        int size = MAGIC.length + 1 + encodedSize(name) + encodedSize(metadata);
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        putString(buffer, name);
+        putString(buffer, metadata);
+        return buffer.array();
+    }
+
+    public static RNMGLOfflineMetadata decode(byte[] bytes) throws IOException {
+        if (!hasMagic(bytes)) { return decodeLegacy(bytes); }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(MAGIC.length);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported offline pack metadata version " + version);
+        }
+        try {
+            String name = getString(buffer);
+            String metadata = getString(buffer);
+            return new RNMGLOfflineMetadata(name, metadata);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated offline pack metadata", e);
+        }
+    }
+
+    /**
+     * Decodes the metadata of a region, or returns EMPTY if it can't be read.
+     */
+    public static RNMGLOfflineMetadata fromRegion(OfflineRegion region) {
+        try {
+            return decode(region.getMetadata());
+        } catch (IOException e) {
+            Log.e(TAG, "Could not read the metadata of offline region " + region.getID(), e);
+            return EMPTY;
+        }
+    }
+
+    private static RNMGLOfflineMetadata decodeLegacy(byte[] bytes) throws IOException {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            String name = (String) ois.readObject();
+            String metadata = (String) ois.readObject();
+            return new RNMGLOfflineMetadata(name, metadata);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid offline pack metadata", e);
+        } finally {
+            ois.close();
+        }
+    }
+
+    private static boolean hasMagic(byte[] bytes) {
+        if (bytes.length < MAGIC.length + 1) { return false; }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) { return false; }
+        }
+        return true;
+    }
+
+    private static int encodedSize(@Nullable byte[] string) {
+        return 4 + (string == null ? 0 : string.length);
+    }
+
+    private static void putString(ByteBuffer buffer, @Nullable byte[] string) {
+        if (string == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(string.length);
+        buffer.put(string);
+    }
+
+    @Nullable
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == -1) { return null; }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        String string = new String(buffer.array(), buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mapbox.reactnativemapboxgl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Offline packs keyed by name and by offline region id, in the order they were added.
+ *
+ * Names are meant to be unique: reserveName() claims a name for a pack that is being created, and
+ * fails if a pack already has it. Packs from earlier versions may still share a name, lookups by
+ * name then find the first of them.
+ */
+class RNMGLOfflinePackRegistry<T> {
+
+    private static class Entry<T> {
+        final String name;
+        final long regionId;
+        final T pack;
+
+        Entry(String name, long regionId, T pack) {
+            this.name = name;
+            this.regionId = regionId;
+            this.pack = pack;
+        }
+    }
+
+    private final Map<Long, Entry<T>> _byRegionId = new LinkedHashMap<>();
+    private final Map<String, Entry<T>> _byName = new HashMap<>();
+    private final Set<String> _reservedNames = new HashSet<>();
+    private int _duplicateNameCount = 0;
+
+    /**
+     * Claims a name for a pack that is about to be created. Returns false if a pack already has the
+     * name or is being created with it.
+     */
+    public synchronized boolean reserveName(String name) {
+        if (_byName.containsKey(name) || _reservedNames.contains(name)) { return false; }
+        _reservedNames.add(name);
+        return true;
+    }
+
+    public synchronized void releaseName(String name) {
+        _reservedNames.remove(name);
+    }
+
+    /**
+     * Adds a pack, releasing its name if it was reserved.
+     */
+    public synchronized void add(@Nullable String name, long regionId, T pack) {
+        Entry<T> entry = new Entry<>(name, regionId, pack);
+        Entry<T> replaced = _byRegionId.put(regionId, entry);
+        if (replaced != null) { removeName(replaced); }
+
+        if (name == null) { return; }
+        _reservedNames.remove(name);
+        if (_byName.containsKey(name)) {
+            _duplicateNameCount++;
+        } else {
+            _byName.put(name, entry);
+        }
+    }
+
+    @Nullable
+    public synchronized T getByName(String name) {
+        Entry<T> entry = _byName.get(name);
+        return entry == null ? null : entry.pack;
+    }
+
+    @Nullable
+    public synchronized T getByRegionId(long regionId) {
+        Entry<T> entry = _byRegionId.get(regionId);
+        return entry == null ? null : entry.pack;
+    }
+
+    @Nullable
+    public synchronized T remove(long regionId) {
+        Entry<T> entry = _byRegionId.remove(regionId);
+        if (entry == null) { return null; }
+        removeName(entry);
+        return entry.pack;
+    }
+
+    /**
+     * Returns a copy of all packs, in the order they were added.
+     */
+    public synchronized List<T> getAll() {
+        List<T> packs = new ArrayList<>(_byRegionId.size());
+        for (Entry<T> entry : _byRegionId.values()) {
+            packs.add(entry.pack);
+        }
+        return packs;
+    }
+
+    public synchronized int size() {
+        return _byRegionId.size();
+    }
+
+    /**
+     * Returns how many packs were added with a name that another pack already had.
+     */
+    public synchronized int getDuplicateNameCount() {
+        return _duplicateNameCount;
+    }
+
+    private void removeName(Entry<T> entry) {
+        if (entry.name == null) { return; }
+        if (_byName.get(entry.name) != entry) {
+            // One of the packs hidden behind another with the same name
+            _duplicateNameCount--;
+            return;
+        }
+        _byName.remove(entry.name);
+        if (_duplicateNameCount == 0) { return; }
+
+        // Another pack with the same name takes over
+        for (Entry<T> other : _byRegionId.values()) {
+            if (entry.name.equals(other.name)) {
+                _byName.put(other.name, other);
+                _duplicateNameCount--;
+                return;
+            }
+        }
+    }
+}
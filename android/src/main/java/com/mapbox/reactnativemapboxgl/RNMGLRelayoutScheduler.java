@@ -0,0 +1,55 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.support.annotation.UiThread;
+import android.view.Choreographer;
+
+/**
+ * Coalesces relayout requests into at most one relayout per frame. Requests only set a dirty
+ * flag; the relayout runs on the next frame callback.
+ */
+@UiThread
+public class RNMGLRelayoutScheduler implements Choreographer.FrameCallback {
+
+    private final Runnable _relayout;
+    private boolean _dirty = false;
+    private int _requestCount = 0;
+    private int _relayoutCount = 0;
+
+    public RNMGLRelayoutScheduler(Runnable relayout) {
+        _relayout = relayout;
+    }
+
+    public void request() {
+        _requestCount++;
+        if (_dirty) { return; }
+        _dirty = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    public void cancel() {
+        if (!_dirty) { return; }
+        _dirty = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!_dirty) { return; }
+        _dirty = false;
+        _relayoutCount++;
+        _relayout.run();
+    }
+
+    public int getRequestCount() {
+        return _requestCount;
+    }
+
+    public int getRelayoutCount() {
+        return _relayoutCount;
+    }
+
+    // Requests that were served by a relayout requested earlier in the same frame
+    public int getCollapsedCount() {
+        return _requestCount - _relayoutCount - (_dirty ? 1 : 0);
+    }
+}
@@ -0,0 +1,233 @@
+package com.mapbox.reactnativemapboxgl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical greedy point clustering, ported from supercluster. Points are clustered once per
+ * zoom level from maxZoom down to minZoom, and every level is indexed by a KD-tree so viewport
+ * queries only touch the clusters they return.
+ *
+ * Instances are immutable once built and can be queried from any thread.
+ */
+public class RNMGLSupercluster {
+
+    public static class Node {
+        final double x;
+        final double y;
+        final int index; // Point index for leaves, cluster id for clusters
+        final int numPoints;
+        int zoom = Integer.MAX_VALUE; // Last zoom this node was processed at
+        int parentId = -1;
+
+        Node(double x, double y, int index, int numPoints) {
+            this.x = x;
+            this.y = y;
+            this.index = index;
+            this.numPoints = numPoints;
+        }
+
+        public boolean isCluster() {
+            return numPoints > 1;
+        }
+
+        public int getPointIndex() {
+            return index;
+        }
+
+        public int getClusterId() {
+            return index;
+        }
+
+        public int getPointCount() {
+            return numPoints;
+        }
+
+        public double getLatitude() {
+            return yLat(y);
+        }
+
+        public double getLongitude() {
+            return xLng(x);
+        }
+    }
+
+    private static final int NODE_SIZE = 64;
+    private static final int EXTENT = 512;
+
+    private final int _minZoom;
+    private final int _maxZoom;
+    private final double _radius;
+    private final Node[][] _levels;
+    private final RNMGLKDBush[] _trees;
+
+    public RNMGLSupercluster(double[] latitudes, double[] longitudes, int count, double radius, int minZoom, int maxZoom) {
+        _minZoom = minZoom;
+        _maxZoom = maxZoom;
+        _radius = radius;
+        _levels = new Node[maxZoom + 2][];
+        _trees = new RNMGLKDBush[maxZoom + 2];
+
+        Node[] nodes = new Node[count];
+        for (int i = 0; i < count; i++) {
+            nodes[i] = new Node(lngX(longitudes[i]), latY(latitudes[i]), i, 1);
+        }
+        setLevel(maxZoom + 1, nodes);
+
+        for (int z = maxZoom; z >= minZoom; z--) {
+            nodes = cluster(nodes, z);
+            setLevel(z, nodes);
+        }
+    }
+
+    private void setLevel(int zoom, Node[] nodes) {
+        double[] xs = new double[nodes.length];
+        double[] ys = new double[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            xs[i] = nodes[i].x;
+            ys[i] = nodes[i].y;
+        }
+        _levels[zoom] = nodes;
+        _trees[zoom] = new RNMGLKDBush(xs, ys, nodes.length, NODE_SIZE);
+    }
+
+    private Node[] cluster(Node[] points, int zoom) {
+        List<Node> clusters = new ArrayList<>();
+        double r = _radius / (EXTENT * Math.pow(2, zoom));
+        RNMGLKDBush tree = _trees[zoom + 1];
+        RNMGLKDBush.IntList neighbors = new RNMGLKDBush.IntList();
+
+        for (int i = 0; i < points.length; i++) {
+            Node p = points[i];
+            // Already merged into a cluster at this zoom
+            if (p.zoom <= zoom) { continue; }
+            p.zoom = zoom;
+
+            neighbors.clear();
+            tree.within(p.x, p.y, r, neighbors);
+
+            int numPoints = p.numPoints;
+            double wx = p.x * numPoints;
+            double wy = p.y * numPoints;
+            int id = (i << 5) + (zoom + 1);
+
+            for (int j = 0; j < neighbors.size(); j++) {
+                Node b = points[neighbors.get(j)];
+                if (b.zoom <= zoom) { continue; }
+                b.zoom = zoom;
+                wx += b.x * b.numPoints;
+                wy += b.y * b.numPoints;
+                numPoints += b.numPoints;
+                b.parentId = id;
+            }
+
+            if (numPoints == p.numPoints) {
+                clusters.add(p);
+            } else {
+                p.parentId = id;
+                clusters.add(new Node(wx / numPoints, wy / numPoints, id, numPoints));
+            }
+        }
+
+        return clusters.toArray(new Node[clusters.size()]);
+    }
+
+    // Queries
+
+    public void getClusters(double south, double west, double north, double east, double zoom, List<Node> result) {
+        double minLng = ((west + 180) % 360 + 360) % 360 - 180;
+        double minLat = Math.max(-90, Math.min(90, south));
+        double maxLng = east == 180 ? 180 : ((east + 180) % 360 + 360) % 360 - 180;
+        double maxLat = Math.max(-90, Math.min(90, north));
+
+        if (east - west >= 360) {
+            minLng = -180;
+            maxLng = 180;
+        } else if (minLng > maxLng) {
+            getClusters(minLat, minLng, maxLat, 180, zoom, result);
+            getClusters(minLat, -180, maxLat, maxLng, zoom, result);
+            return;
+        }
+
+        int level = limitZoom(zoom);
+        Node[] nodes = _levels[level];
+        RNMGLKDBush.IntList ids = new RNMGLKDBush.IntList();
+        _trees[level].range(lngX(minLng), latY(maxLat), lngX(maxLng), latY(minLat), ids);
+        for (int i = 0; i < ids.size(); i++) {
+            result.add(nodes[ids.get(i)]);
+        }
+    }
+
+    public List<Node> getChildren(int clusterId) {
+        int originId = clusterId >> 5;
+        int originZoom = clusterId % 32;
+        List<Node> children = new ArrayList<>();
+        if (originZoom > _maxZoom + 1 || _levels[originZoom] == null) { return children; }
+
+        Node[] nodes = _levels[originZoom];
+        if (originId >= nodes.length) { return children; }
+        Node origin = nodes[originId];
+        double r = _radius / (EXTENT * Math.pow(2, originZoom - 1));
+
+        RNMGLKDBush.IntList ids = new RNMGLKDBush.IntList();
+        _trees[originZoom].within(origin.x, origin.y, r, ids);
+        for (int i = 0; i < ids.size(); i++) {
+            Node node = nodes[ids.get(i)];
+            if (node.parentId == clusterId) { children.add(node); }
+        }
+        return children;
+    }
+
+    public void getLeaves(int clusterId, RNMGLKDBush.IntList result) {
+        RNMGLKDBush.IntList stack = new RNMGLKDBush.IntList();
+        stack.add(clusterId);
+        while (stack.size() > 0) {
+            for (Node child : getChildren(stack.removeLast())) {
+                if (child.isCluster()) {
+                    stack.add(child.index);
+                } else {
+                    result.add(child.index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the zoom at which the cluster splits into several children.
+     */
+    public int getClusterExpansionZoom(int clusterId) {
+        int expansionZoom = clusterId % 32 - 1;
+        while (expansionZoom <= _maxZoom) {
+            List<Node> children = getChildren(clusterId);
+            expansionZoom++;
+            if (children.size() != 1 || !children.get(0).isCluster()) { break; }
+            clusterId = children.get(0).index;
+        }
+        return expansionZoom;
+    }
+
+    private int limitZoom(double zoom) {
+        return Math.max(_minZoom, Math.min((int) Math.floor(zoom), _maxZoom + 1));
+    }
+
+    // Spherical mercator, normalized to [0, 1]
+
+    static double lngX(double lng) {
+        return lng / 360 + 0.5;
+    }
+
+    static double latY(double lat) {
+        double sin = Math.sin(lat * Math.PI / 180);
+        double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+        return y < 0 ? 0 : y > 1 ? 1 : y;
+    }
+
+    static double xLng(double x) {
+        return (x - 0.5) * 360;
+    }
+
+    static double yLat(double y) {
+        double y2 = (180 - y * 360) * Math.PI / 180;
+        return 360 * Math.atan(Math.exp(y2)) / Math.PI - 90;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-resolution version of a line, to simplify large polylines and polygons by zoom level.
+ * Every vertex is ranked once with Douglas-Peucker in mercator space; the vertices of a zoom
+ * level are those whose rank exceeds the tolerance at that zoom. Levels are built on first use
+ * and cached.
+ */
+public class RNMGLVertexPyramid {
+
+    static final int MAX_LEVEL = 22;
+
+    // Size of the world in points at zoom 0, mapbox-gl uses 512 pixel tiles
+    private static final double WORLD_SIZE = 512;
+
+    private final double[] _coordinates; // lat, lng pairs
+    private final double[] _significance;
+    private final double _tolerance;
+    private final List<List<LatLng>> _levels = new ArrayList<>(MAX_LEVEL + 1);
+
+    /**
+     * @param coordinates lat, lng pairs
+     * @param tolerance maximum distance in screen points between the simplified and full line
+     */
+    public RNMGLVertexPyramid(double[] coordinates, double tolerance) {
+        _coordinates = coordinates;
+        _tolerance = tolerance;
+        _significance = rank(coordinates);
+        for (int i = 0; i <= MAX_LEVEL; i++) {
+            _levels.add(null);
+        }
+    }
+
+    public int levelForZoom(double zoom) {
+        return Math.max(0, Math.min((int) Math.floor(zoom), MAX_LEVEL));
+    }
+
+    public List<LatLng> getPoints(int level) {
+        List<LatLng> points = _levels.get(level);
+        if (points != null) { return points; }
+
+        double tolerance = _tolerance / (WORLD_SIZE * Math.pow(2, level));
+        double sqTolerance = tolerance * tolerance;
+        points = new ArrayList<>();
+        for (int i = 0; i < _significance.length; i++) {
+            if (_significance[i] > sqTolerance) {
+                points.add(new LatLng(_coordinates[2 * i], _coordinates[2 * i + 1]));
+            }
+        }
+        _levels.set(level, points);
+        return points;
+    }
+
+    public int getVertexCount() {
+        return _significance.length;
+    }
+
+    public double[] getCoordinates() {
+        return _coordinates;
+    }
+
+    /**
+     * The squared tolerance below which each vertex is dropped. End points are always kept. A
+     * vertex never outranks the vertex whose split introduced it, so levels nest.
+     */
+    private static double[] rank(double[] coordinates) {
+        int count = coordinates.length / 2;
+        double[] significance = new double[count];
+        if (count == 0) { return significance; }
+
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            ys[i] = RNMGLSupercluster.latY(coordinates[2 * i]);
+            xs[i] = RNMGLSupercluster.lngX(coordinates[2 * i + 1]);
+        }
+
+        significance[0] = Double.POSITIVE_INFINITY;
+        significance[count - 1] = Double.POSITIVE_INFINITY;
+
+        RNMGLKDBush.IntList stack = new RNMGLKDBush.IntList();
+        stack.add(0);
+        stack.add(count - 1);
+        while (stack.size() > 0) {
+            int last = stack.removeLast();
+            int first = stack.removeLast();
+
+            double maxSqDist = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                double sqDist = sqSegDist(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+                if (sqDist > maxSqDist) {
+                    maxSqDist = sqDist;
+                    index = i;
+                }
+            }
+            if (index == -1) { continue; }
+
+            significance[index] = Math.min(maxSqDist, Math.min(significance[first], significance[last]));
+            stack.add(first);
+            stack.add(index);
+            stack.add(index);
+            stack.add(last);
+        }
+        return significance;
+    }
+
+    private static double sqSegDist(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+
+        if (dx != 0 || dy != 0) {
+            double t = ((px - ax) * dx + (py - ay) * dy) / (dx * dx + dy * dy);
+            if (t > 1) {
+                ax = bx;
+                ay = by;
+            } else if (t > 0) {
+                ax += dx * t;
+                ay += dy * t;
+            }
+        }
+
+        dx = px - ax;
+        dy = py - ay;
+        return dx * dx + dy * dy;
+    }
+}
@@ -29,6 +29,8 @@ import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 import com.mapbox.services.commons.geojson.Feature;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -41,16 +43,19 @@ import javax.annotation.Nullable;
 public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapboxGLView> {
 
     private static final String REACT_CLASS = "RCTMapboxGL";
+    private static final String TAG = ReactNativeMapboxGLManager.class.getSimpleName();
 
     private ReactApplicationContext _context;
-    private Map<ReactNativeMapboxGLView, List<View>> _childViews;
-    private Set<ChildListener> _childListeners;
+    private Map<ReactNativeMapboxGLView, RNMGLChildRegistry> _childViews;
+    private Map<ReactNativeMapboxGLView, Set<ChildListener>> _childListeners;
+    private RNMGLAnnotationCommandQueue _annotationCommands;
 
     public ReactNativeMapboxGLManager(ReactApplicationContext context) {
         super();
         _context = context;
         _childViews = new HashMap<>();
-        _childListeners = new HashSet<>();
+        _childListeners = new HashMap<>();
+        _annotationCommands = new RNMGLAnnotationCommandQueue();
     }
 
     @Override
@@ -62,14 +67,10 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
         return _context;
     }
 
-    public List<RNMGLAnnotationView> getAnnotationViews(ReactNativeMapboxGLView parent) {
-        List<RNMGLAnnotationView> annotationViews = new ArrayList<>();
-        for (View view : _childViews.get(parent)) {
-            if (RNMGLAnnotationView.class.equals(view.getClass())) {
-                annotationViews.add((RNMGLAnnotationView) view);
-            }
-        }
-        return annotationViews;
+    public Collection<RNMGLAnnotationView> getAnnotationViews(ReactNativeMapboxGLView parent) {
+        RNMGLChildRegistry children = _childViews.get(parent);
+        if (children == null) { return Collections.emptyList(); }
+        return children.getAnnotationViews();
     }
 
     // Lifecycle methods
@@ -105,6 +106,8 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
                 .put(ReactNativeMapboxGLEventTypes.ON_FINISH_LOADING_MAP, MapBuilder.of("registrationName", "onFinishLoadingMap"))
                 .put(ReactNativeMapboxGLEventTypes.ON_START_LOADING_MAP, MapBuilder.of("registrationName", "onStartLoadingMap"))
                 .put(ReactNativeMapboxGLEventTypes.ON_LOCATE_USER_FAILED, MapBuilder.of("registrationName", "onLocateUserFailed"))
+                .put(ReactNativeMapboxGLEventTypes.ON_EXPAND_CLUSTER, MapBuilder.of("registrationName", "onExpandCluster"))
+                .put(ReactNativeMapboxGLEventTypes.ON_CAMERA_CHANGED, MapBuilder.of("registrationName", "onCameraChanged"))
                 .build();
     }
 
@@ -115,31 +118,49 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
         void childRemoved(View child);
     }
 
-    public void addChildListener(ChildListener listener) {
-        _childListeners.add(listener);
+    // Listeners are registered per map, so that only the map that owns a child is notified
+
+    public void addChildListener(ReactNativeMapboxGLView parent, ChildListener listener) {
+        Set<ChildListener> listeners = _childListeners.get(parent);
+        if (listeners == null) {
+            listeners = new HashSet<>();
+            _childListeners.put(parent, listeners);
+        }
+        listeners.add(listener);
     }
 
-    public void removeChildListener(ChildListener listener) {
-        _childListeners.remove(listener);
+    public void removeChildListener(ReactNativeMapboxGLView parent, ChildListener listener) {
+        Set<ChildListener> listeners = _childListeners.get(parent);
+        if (listeners == null) { return; }
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            _childListeners.remove(parent);
+        }
     }
 
     @Override
     public void addView(ReactNativeMapboxGLView parent, View child, int index) {
-        if (!_childViews.containsKey(parent)) {
-            _childViews.put(parent, new ArrayList<View>());
+        RNMGLChildRegistry children = _childViews.get(parent);
+        if (children == null) {
+            children = new RNMGLChildRegistry();
+            _childViews.put(parent, children);
         }
-        _childViews.get(parent).add(index, child);
-        if (!RNMGLAnnotationView.class.equals(child.getClass())) {
-            super.addView(parent, child, getRealIndex(parent, index));
+        children.add(index, child);
+        if (!RNMGLChildRegistry.isAnnotationView(child)) {
+            super.addView(parent, child, children.nativeIndex(index));
         }
-        for (ChildListener listener : _childListeners) {
-            listener.childAdded(child);
+        Set<ChildListener> listeners = _childListeners.get(parent);
+        if (listeners != null) {
+            for (ChildListener listener : listeners) {
+                listener.childAdded(child);
+            }
         }
     }
 
     @Override
     public int getChildCount(ReactNativeMapboxGLView parent) {
-        return _childViews.get(parent).size();
+        RNMGLChildRegistry children = _childViews.get(parent);
+        return children == null ? 0 : children.size();
     }
 
     @Override
@@ -149,29 +170,23 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
 
     @Override
     public void removeViewAt(ReactNativeMapboxGLView parent, int index) {
-        int realIndex = getRealIndex(parent, index);
-        View child = _childViews.get(parent).remove(index);
-        if (!RNMGLAnnotationView.class.equals(child.getClass())) {
-            super.removeViewAt(parent, realIndex);
+        RNMGLChildRegistry children = _childViews.get(parent);
+        int nativeIndex = children.nativeIndex(index);
+        View child = children.remove(index);
+        if (!RNMGLChildRegistry.isAnnotationView(child)) {
+            super.removeViewAt(parent, nativeIndex);
         }
-        for (ChildListener listener : _childListeners) {
-            listener.childRemoved(child);
+        Set<ChildListener> listeners = _childListeners.get(parent);
+        if (listeners != null) {
+            for (ChildListener listener : listeners) {
+                listener.childRemoved(child);
+            }
         }
-        if (_childViews.get(parent).isEmpty()) {
+        if (children.isEmpty()) {
             _childViews.remove(parent);
         }
     }
 
-    private int getRealIndex(ReactNativeMapboxGLView parent, int index) {
-        int annotationViews = 0;
-        for (int i = 0; i < index; i++) {
-            if (RNMGLAnnotationView.class.equals(getChildAt(parent, i).getClass())) {
-                annotationViews++;
-            }
-        }
-        return index - annotationViews;
-    }
-
     // Props
 
     @ReactProp(name = "initialZoomLevel")
@@ -211,6 +226,21 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
         view.setEnableOnRegionWillChange(value);
     }
 
+    @ReactProp(name = "regionChangeThrottleInterval", defaultInt = 100)
+    public void setRegionChangeThrottleInterval(ReactNativeMapboxGLView view, int value) {
+        view.setRegionChangeThrottleInterval(value);
+    }
+
+    @ReactProp(name = "enableOnCameraChanged")
+    public void setEnableOnCameraChanged(ReactNativeMapboxGLView view, boolean value) {
+        view.setEnableOnCameraChanged(value);
+    }
+
+    @ReactProp(name = "cameraChangeMaxRate")
+    public void setCameraChangeMaxRate(ReactNativeMapboxGLView view, int value) {
+        view.setCameraChangeMaxRate(value);
+    }
+
     @ReactProp(name = "debugActive")
     public void setDebugActive(ReactNativeMapboxGLView view, boolean value) {
         view.setDebugActive(value);
@@ -241,6 +271,21 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
         view.setAnnotationsPopUpEnabled(value);
     }
 
+    @ReactProp(name = "annotationsCullingEnabled")
+    public void setAnnotationsCullingEnabled(ReactNativeMapboxGLView view, boolean value) {
+        view.setAnnotationsCullingEnabled(value);
+    }
+
+    @ReactProp(name = "annotationsClusteringEnabled")
+    public void setAnnotationsClusteringEnabled(ReactNativeMapboxGLView view, boolean value) {
+        view.setAnnotationsClusteringEnabled(value);
+    }
+
+    @ReactProp(name = "annotationsClusterRadius", defaultInt = 40)
+    public void setAnnotationsClusterRadius(ReactNativeMapboxGLView view, int value) {
+        view.setAnnotationsClusterRadius(value);
+    }
+
     @ReactProp(name = "showsUserLocation")
     public void setShowsUserLocation(ReactNativeMapboxGLView view, boolean value) {
         view.setShowsUserLocation(value);
@@ -289,6 +334,8 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
     public static final int COMMAND_SPLICE_ANNOTATIONS = 8;
     public static final int COMMAND_DESELECT_ANNOTATION = 9;
     public static final int COMMAND_QUERY_RENDERED_FEATURES = 10;
+    public static final int COMMAND_GET_DEBUG_STATS = 11;
+    public static final int COMMAND_ANIMATE_ANNOTATIONS = 12;
 
     @Override
     public
@@ -305,6 +352,8 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
                 .put("spliceAnnotations", COMMAND_SPLICE_ANNOTATIONS)
                 .put("deselectAnnotation", COMMAND_DESELECT_ANNOTATION)
                 .put("queryRenderedFeatures", COMMAND_QUERY_RENDERED_FEATURES)
+                .put("getDebugStats", COMMAND_GET_DEBUG_STATS)
+                .put("animateAnnotations", COMMAND_ANIMATE_ANNOTATIONS)
                 .build();
     }
 
@@ -356,6 +405,12 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
             case COMMAND_QUERY_RENDERED_FEATURES:
                 queryRenderedFeatures(view, args.getMap(0), args.getInt(1));
                 break;
+            case COMMAND_GET_DEBUG_STATS:
+                getDebugStats(view, args.getInt(0));
+                break;
+            case COMMAND_ANIMATE_ANNOTATIONS:
+                animateAnnotations(view, args.getArray(0));
+                break;
             default:
                 throw new JSApplicationIllegalArgumentException("Invalid commandId " + commandId + " sent to " + getClass().getSimpleName());
         }
@@ -402,6 +457,26 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
         fireCallback(callbackId, args);
     }
 
+    private void getDebugStats(final ReactNativeMapboxGLView view, final int callbackId) {
+        // Queued behind pending annotation commands so that the stats include them
+        _annotationCommands.enqueue(new RNMGLAnnotationCommandQueue.Command() {
+            @Override
+            protected void apply() {
+                WritableMap result = Arguments.createMap();
+                result.putInt("annotationCommandCount", _annotationCommands.getCommandCount());
+                result.putDouble("lastAnnotationDecodeMs", _annotationCommands.getLastDecodeNanos() / 1e6);
+                result.putDouble("lastAnnotationApplyMs", _annotationCommands.getLastApplyNanos() / 1e6);
+                result.putDouble("totalAnnotationDecodeMs", _annotationCommands.getTotalDecodeNanos() / 1e6);
+                result.putDouble("totalAnnotationApplyMs", _annotationCommands.getTotalApplyNanos() / 1e6);
+                view.putDebugStats(result);
+
+                WritableArray args = Arguments.createArray();
+                args.pushMap(result);
+                fireCallback(callbackId, args);
+            }
+        });
+    }
+
     // Setters
 
     private void easeTo(ReactNativeMapboxGLView view, ReadableMap updates, boolean animated, int callbackId) {
@@ -469,32 +544,106 @@ public class ReactNativeMapboxGLManager extends ViewGroupManager<ReactNativeMapb
 
     // Annotations
 
-    public void spliceAnnotations(ReactNativeMapboxGLView view, boolean removeAll, ReadableArray itemsToRemove, ReadableArray itemsToAdd) {
-        if (removeAll) {
-            view.removeAllAnnotations();
-        } else {
-            int removeCount = itemsToRemove.size();
-            for (int i = 0; i < removeCount; i++) {
-                view.removeAnnotation(itemsToRemove.getString(i));
+    // Annotation payloads are decoded off the UI thread. Commands that refer to annotations go
+    // through the same queue so that they observe every splice sent before them.
+
+    public void spliceAnnotations(final ReactNativeMapboxGLView view, final boolean removeAll, final ReadableArray itemsToRemove, final ReadableArray itemsToAdd) {
+        _annotationCommands.enqueue(new RNMGLAnnotationCommandQueue.Command() {
+            List<String> namesToRemove;
+            List<String> names;
+            List<RNMGLAnnotationOptions> options;
+
+            @Override
+            protected void decode() {
+                int removeCount = removeAll ? 0 : itemsToRemove.size();
+                namesToRemove = new ArrayList<>(removeCount);
+                for (int i = 0; i < removeCount; i++) {
+                    namesToRemove.add(itemsToRemove.getString(i));
+                }
+
+                int addCount = itemsToAdd.size();
+                names = new ArrayList<>(addCount);
+                options = new ArrayList<>(addCount);
+                for (int i = 0; i < addCount; i++) {
+                    // A malformed annotation is skipped on its own instead of dropping the whole splice
+                    String name;
+                    RNMGLAnnotationOptions annotationOptions;
+                    try {
+                        ReadableMap annotation = itemsToAdd.getMap(i);
+                        annotationOptions = RNMGLAnnotationOptionsFactory.annotationOptionsFromJS(annotation, view.getContext());
+                        if (annotationOptions == null) { continue; }
+                        name = annotation.getString("id");
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Skipping annotation " + i + " that failed to decode", e);
+                        continue;
+                    }
+
+                    names.add(name);
+                    options.add(annotationOptions);
+                }
             }
-        }
 
-        int addCount = itemsToAdd.size();
-        for (int i = 0; i < addCount; i++) {
-            ReadableMap annotation = itemsToAdd.getMap(i);
-            RNMGLAnnotationOptions annotationOptions = RNMGLAnnotationOptionsFactory.annotationOptionsFromJS(annotation, view.getContext());
+            @Override
+            protected void apply() {
+                if (removeAll) {
+                    view.removeAllAnnotations();
+                } else {
+                    view.removeAnnotations(namesToRemove);
+                }
+                view.setAnnotations(names, options);
+            }
+        });
+    }
+
+    public void animateAnnotations(final ReactNativeMapboxGLView view, final ReadableArray moves) {
+        _annotationCommands.enqueue(new RNMGLAnnotationCommandQueue.Command() {
+            List<String> names;
+            double[] latitudes;
+            double[] longitudes;
+            int[] durations;
+            int[] easings;
 
-            String name = annotation.getString("id");
-            view.setAnnotation(name, annotationOptions);
-        }
+            @Override
+            protected void decode() {
+                int count = moves.size();
+                names = new ArrayList<>(count);
+                latitudes = new double[count];
+                longitudes = new double[count];
+                durations = new int[count];
+                easings = new int[count];
+                for (int i = 0; i < count; i++) {
+                    ReadableMap move = moves.getMap(i);
+                    names.add(move.getString("id"));
+                    latitudes[i] = move.getDouble("latitude");
+                    longitudes[i] = move.getDouble("longitude");
+                    durations[i] = move.hasKey("duration") ? move.getInt("duration") : 0;
+                    easings[i] = RNMGLMarkerAnimator.easingFromJS(move.hasKey("easing") ? move.getString("easing") : null);
+                }
+            }
+
+            @Override
+            protected void apply() {
+                view.animateAnnotations(names, latitudes, longitudes, durations, easings);
+            }
+        });
     }
 
-    public void selectAnnotation(ReactNativeMapboxGLView view, String annotationId, boolean animated) {
-        view.selectAnnotation(annotationId, animated);
+    public void selectAnnotation(final ReactNativeMapboxGLView view, final String annotationId, final boolean animated) {
+        _annotationCommands.enqueue(new RNMGLAnnotationCommandQueue.Command() {
+            @Override
+            protected void apply() {
+                view.selectAnnotation(annotationId, animated);
+            }
+        });
     }
 
-    public void deselectAnnotation(ReactNativeMapboxGLView view) {
-        view.deselectAnnotation();
+    public void deselectAnnotation(final ReactNativeMapboxGLView view) {
+        _annotationCommands.enqueue(new RNMGLAnnotationCommandQueue.Command() {
+            @Override
+            protected void apply() {
+                view.deselectAnnotation();
+            }
+        });
     }
 
     public void queryRenderedFeatures(ReactNativeMapboxGLView view, ReadableMap options, int callbackId) {
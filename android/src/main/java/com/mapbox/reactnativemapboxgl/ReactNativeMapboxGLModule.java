@@ -5,18 +5,15 @@ import android.content.Context;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Parcel;
+import android.os.SystemClock;
 import android.support.annotation.MainThread;
 import android.support.annotation.UiThread;
 import android.util.Log;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInput;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 
 import com.facebook.common.logging.FLog;
@@ -198,43 +195,25 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
 
     // Offline pack events and initialization
 
-    class OfflineRegionProgressObserver implements OfflineRegion.OfflineRegionObserver {
+    class OfflineRegionProgressObserver implements OfflineRegion.OfflineRegionObserver, RNMGLOfflineDownloadScheduler.Download {
         ReactNativeMapboxGLModule module;
         OfflineRegion region;
         OfflineRegionStatus status;
         String name;
-        boolean recentlyUpdated = false;
-        boolean throttled = true;
+        int priority = 0;
+        // Decoded once, progress events and listings reuse it
+        RNMGLOfflineMetadata metadata;
         boolean invalid = false;
 
-        OfflineRegionProgressObserver(ReactNativeMapboxGLModule module, OfflineRegion region, String name) {
+        OfflineRegionProgressObserver(ReactNativeMapboxGLModule module, OfflineRegion region, @Nullable RNMGLOfflineMetadata metadata) {
             this.module = module;
             this.region = region;
-            if (name == null) {
-                this.name = getOfflineRegionName(region);
+            if (metadata == null) {
+                this.metadata = RNMGLOfflineMetadata.fromRegion(region);
             } else {
-                this.name = name;
+                this.metadata = metadata;
             }
-        }
-
-        void fireUpdateEvent() {
-            if (invalid) { return; }
-
-            recentlyUpdated = true;
-            WritableMap event = serializeOfflineRegionStatus(region, this.status);
-            module.getReactApplicationContext().getJSModule(RCTNativeAppEventEmitter.class)
-                    .emit("MapboxOfflineProgressDidChange", event);
-
-            module.mainHandler.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    recentlyUpdated = false;
-                    if (throttled) {
-                        throttled = false;
-                        fireUpdateEvent();
-                    }
-                }
-            }, throttleInterval);
+            this.name = this.metadata.getName();
         }
 
         @Override
@@ -242,20 +221,21 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
             if (invalid) { return; }
 
             this.status = status;
-
-            if (!recentlyUpdated) {
-                fireUpdateEvent();
-            } else {
-                throttled = true;
+            if (status.isComplete()) {
+                downloadScheduler.onComplete(this);
             }
+
+            module.scheduleProgressEvent(this);
         }
 
         @Override
         public void onError(OfflineRegionError error) {
             if (invalid) { return; }
 
+            downloadScheduler.onError(this);
+
             WritableMap event = Arguments.createMap();
-            event.putString("name", getOfflineRegionName(region));
+            event.putString("name", name);
             event.putString("error", error.toString());
 
             module.getReactApplicationContext().getJSModule(RCTNativeAppEventEmitter.class)
@@ -267,20 +247,97 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
             if (invalid) { return; }
 
             WritableMap event = Arguments.createMap();
-            event.putString("name", getOfflineRegionName(region));
+            event.putString("name", name);
             event.putDouble("maxTiles", limit);
 
             module.getReactApplicationContext().getJSModule(RCTNativeAppEventEmitter.class)
                     .emit("MapboxOfflineMaxAllowedTiles", event);
         }
 
+        @Override
+        public void setActive(boolean active) {
+            region.setDownloadState(active ? OfflineRegion.STATE_ACTIVE : OfflineRegion.STATE_INACTIVE);
+        }
+
         public void invalidate() {
             invalid = true;
         }
     }
 
+    // Offline pack progress events
+
+    // Progress of all packs that changed is sent in one event, at most once per throttleInterval
+    private final LinkedHashSet<OfflineRegionProgressObserver> changedProgressObservers = new LinkedHashSet<>();
+    private boolean progressEventScheduled = false;
+    private long lastProgressEventTime = 0;
+    private int progressEventCount = 0;
+    private int progressUpdateCount = 0;
+    private int lastProgressEventSize = 0;
+    private int maxProgressEventSize = 0;
+
+    private final Runnable progressEventRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushProgressEvent();
+        }
+    };
+
+    void scheduleProgressEvent(OfflineRegionProgressObserver observer) {
+        changedProgressObservers.add(observer);
+        if (progressEventScheduled) { return; }
+        progressEventScheduled = true;
+        // Right away after a quiet period, which still collects changes made in the same pass
+        long delay = lastProgressEventTime + throttleInterval - SystemClock.uptimeMillis();
+        mainHandler.postDelayed(progressEventRunnable, Math.max(0, delay));
+    }
+
+    private void flushProgressEvent() {
+        progressEventScheduled = false;
+        lastProgressEventTime = SystemClock.uptimeMillis();
+
+        WritableArray event = Arguments.createArray();
+        int size = 0;
+        for (OfflineRegionProgressObserver observer : changedProgressObservers) {
+            if (observer.invalid || observer.status == null) { continue; }
+            event.pushMap(serializeOfflineRegionStatus(observer.metadata, observer.status));
+            size++;
+        }
+        changedProgressObservers.clear();
+        if (size == 0) { return; }
+
+        progressEventCount++;
+        progressUpdateCount += size;
+        lastProgressEventSize = size;
+        maxProgressEventSize = Math.max(maxProgressEventSize, size);
+        context.getJSModule(RCTNativeAppEventEmitter.class)
+                .emit("MapboxOfflineProgressBatchDidChange", event);
+    }
+
+    @ReactMethod
+    public void getOfflinePackDebugStats(final Promise promise) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                WritableMap result = Arguments.createMap();
+                result.putInt("offlinePackCount", offlinePacks.size());
+                result.putInt("activeDownloads", downloadScheduler.getActiveCount());
+                result.putInt("queuedDownloads", downloadScheduler.getQueuedCount());
+                result.putInt("progressEvents", progressEventCount);
+                result.putInt("progressUpdates", progressUpdateCount);
+                result.putInt("lastProgressEventSize", lastProgressEventSize);
+                result.putInt("maxProgressEventSize", maxProgressEventSize);
+                promise.resolve(result);
+            }
+        });
+    }
+
+    // Statuses of listed packs are fetched a few at a time, so that a long list doesn't flood the
+    // offline database with requests at startup
+    private static final int STATUS_FETCH_BATCH_SIZE = 8;
+
     private int uninitializedObserverCount = -1;
-    private ArrayList<OfflineRegionProgressObserver> offlinePackObservers = new ArrayList<>();
+    private RNMGLOfflinePackRegistry<OfflineRegionProgressObserver> offlinePacks = new RNMGLOfflinePackRegistry<>();
+    private RNMGLOfflineDownloadScheduler downloadScheduler = new RNMGLOfflineDownloadScheduler();
     private ArrayList<Promise> offlinePackListingRequests = new ArrayList<>();
 
     void flushListingRequests() {
@@ -293,38 +350,75 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
 
     class OfflineRegionsInitialRequest implements OfflineManager.ListOfflineRegionsCallback {
         private final ReactNativeMapboxGLModule module;
+        // Only lists the packs, their downloads are left as they are until resumed
+        private final boolean lazy;
+        private final long startTime = SystemClock.elapsedRealtime();
+        private final ArrayDeque<OfflineRegionProgressObserver> pendingStatuses = new ArrayDeque<>();
+        private int fetchingStatusCount = 0;
 
-        OfflineRegionsInitialRequest(ReactNativeMapboxGLModule module) {
+        OfflineRegionsInitialRequest(ReactNativeMapboxGLModule module, boolean lazy) {
             this.module = module;
+            this.lazy = lazy;
         }
 
         @Override
         public void onList(OfflineRegion[] offlineRegions) {
             uninitializedObserverCount = offlineRegions.length;
             for (OfflineRegion region : offlineRegions) {
-                final OfflineRegionProgressObserver observer = new OfflineRegionProgressObserver(module, region, null);
-                offlinePackObservers.add(observer);
+                OfflineRegionProgressObserver observer = new OfflineRegionProgressObserver(module, region, null);
+                offlinePacks.add(observer.name, region.getID(), observer);
                 region.setObserver(observer);
-                region.setDownloadState(OfflineRegion.STATE_ACTIVE);
-                region.getStatus(new OfflineRegion.OfflineRegionStatusCallback() {
+                pendingStatuses.add(observer);
+            }
+            fetchStatuses();
+
+            Log.d(TAG, "Listed " + offlineRegions.length + " offline packs in " +
+                    (SystemClock.elapsedRealtime() - startTime) + " ms");
+            module.context
+                    .getJSModule(RCTNativeAppEventEmitter.class)
+                    .emit("MapboxOfflinePacksLoaded", null);
+        }
+
+        private void fetchStatuses() {
+            while (fetchingStatusCount < STATUS_FETCH_BATCH_SIZE && !pendingStatuses.isEmpty()) {
+                final OfflineRegionProgressObserver observer = pendingStatuses.poll();
+                if (observer.invalid) {
+                    // Removed in the meantime
+                    uninitializedObserverCount--;
+                    continue;
+                }
+                fetchingStatusCount++;
+                observer.region.getStatus(new OfflineRegion.OfflineRegionStatusCallback() {
                     @Override
                     public void onStatus(OfflineRegionStatus status) {
-                        observer.onStatusChanged(status);
-                        uninitializedObserverCount--;
-                        if (uninitializedObserverCount == 0) {
-                            flushListingRequests();
+                        if (lazy) {
+                            // Kept for listings, unless a resume already brought a newer one
+                            if (observer.status == null) { observer.status = status; }
+                        } else {
+                            observer.onStatusChanged(status);
+                            // Completed packs have nothing left to download
+                            if (!status.isComplete()) {
+                                downloadScheduler.request(observer, observer.priority);
+                            }
                         }
+                        onStatusFetched();
                     }
                     @Override
                     public void onError(String error) {
                         Log.e(context.getApplicationContext().getPackageName(), error);
+                        onStatusFetched();
                     }
                 });
             }
+        }
 
-            module.context
-                    .getJSModule(RCTNativeAppEventEmitter.class)
-                    .emit("MapboxOfflinePacksLoaded", null);
+        private void onStatusFetched() {
+            fetchingStatusCount--;
+            uninitializedObserverCount--;
+            if (uninitializedObserverCount == 0) {
+                flushListingRequests();
+            }
+            fetchStatuses();
         }
 
         @Override
@@ -334,13 +428,14 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
     }
 
     @ReactMethod
-    void initializeOfflinePacks() {
+    void initializeOfflinePacks(@Nullable ReadableMap options) {
+        final boolean lazy = options != null && options.hasKey("lazy") && options.getBoolean("lazy");
         final ReactNativeMapboxGLModule _this = this;
         mainHandler.post(new Runnable() {
             @Override
             public void run() {
                 OfflineManager.getInstance(context.getApplicationContext()).listOfflineRegions(
-                        new OfflineRegionsInitialRequest(_this)
+                        new OfflineRegionsInitialRequest(_this, lazy)
                 );
             }
         });
@@ -349,19 +444,19 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
 
     // Offline pack utils
 
-    static WritableMap serializeOfflineRegionStatus(OfflineRegion region, OfflineRegionStatus status) {
+    static WritableMap serializeOfflineRegionStatus(RNMGLOfflineMetadata metadata, @Nullable OfflineRegionStatus status) {
         WritableMap result = Arguments.createMap();
 
-        try {
-            ByteArrayInputStream bis = new ByteArrayInputStream(region.getMetadata());
-            ObjectInputStream ois = new ObjectInputStream(bis);
-
-            result.putString("name", (String)ois.readObject());
-            result.putString("metadata", (String)ois.readObject());
-
-            ois.close();
-        } catch (Throwable e) {
-            e.printStackTrace();
+        result.putString("name", metadata.getName());
+        result.putString("metadata", metadata.getMetadata());
+        if (status == null) {
+            // Not fetched yet
+            result.putInt("state", OFFLINE_PACK_STATE_UNKNOWN);
+            result.putInt("countOfBytesCompleted", 0);
+            result.putInt("countOfResourcesCompleted", 0);
+            result.putInt("countOfResourcesExpected", 0);
+            result.putInt("maximumResourcesExpected", 0);
+            return result;
         }
 
         result.putInt("state", normalizeOfflineRegionState(status));
@@ -410,25 +505,12 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
         return state;
     }
 
-    static String getOfflineRegionName(OfflineRegion region) {
-        try {
-            ByteArrayInputStream bis = new ByteArrayInputStream(region.getMetadata());
-            ObjectInputStream ois = new ObjectInputStream(bis);
-            String name = (String)ois.readObject();
-            ois.close();
-            return name;
-        } catch (Throwable e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
     // Offline pack listing
 
     WritableArray _getOfflinePacks() {
         WritableArray result = Arguments.createArray();
-        for (OfflineRegionProgressObserver observer : offlinePackObservers) {
-            result.pushMap(serializeOfflineRegionStatus(observer.region, observer.status));
+        for (OfflineRegionProgressObserver observer : offlinePacks.getAll()) {
+            result.pushMap(serializeOfflineRegionStatus(observer.metadata, observer.status));
         }
         return result;
     }
@@ -495,22 +577,20 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
                 pixelRatio
         );
 
-        byte [] metadata;
-
-        try {
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(bos);
-            oos.writeObject(options.getString("name"));
-            oos.writeObject(options.getString("metadata"));
-            oos.close();
-            metadata = bos.toByteArray();
-        } catch (IOException e) {
-            promise.reject(e);
+        final RNMGLOfflineMetadata metadata = new RNMGLOfflineMetadata(
+                options.getString("name"),
+                options.hasKey("metadata") ? options.getString("metadata") : null
+        );
+
+        if (!offlinePacks.reserveName(metadata.getName())) {
+            promise.reject(new JSApplicationIllegalArgumentException("addOfflinePack(): An offline pack named " +
+                    metadata.getName() + " already exists."));
             return;
         }
 
+        final int priority = options.hasKey("priority") ? options.getInt("priority") : 0;
         final ReactNativeMapboxGLModule _this = this;
-        final byte [] _metadata = metadata;
+        final byte [] _metadata = metadata.encode();
         mainHandler.post(new Runnable() {
             @Override
             public void run() {
@@ -520,15 +600,17 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
                         new OfflineManager.CreateOfflineRegionCallback() {
                             @Override
                             public void onCreate(OfflineRegion offlineRegion) {
-                                OfflineRegionProgressObserver observer = new OfflineRegionProgressObserver(_this, offlineRegion, null);
-                                offlinePackObservers.add(observer);
+                                OfflineRegionProgressObserver observer = new OfflineRegionProgressObserver(_this, offlineRegion, metadata);
+                                observer.priority = priority;
+                                offlinePacks.add(metadata.getName(), offlineRegion.getID(), observer);
                                 offlineRegion.setObserver(observer);
-                                offlineRegion.setDownloadState(OfflineRegion.STATE_ACTIVE);
+                                downloadScheduler.request(observer, priority);
                                 promise.resolve(null);
                             }
 
                             @Override
                             public void onError(String error) {
+                                offlinePacks.releaseName(metadata.getName());
                                 promise.reject(new JSApplicationIllegalArgumentException(error));
                             }
                         }
@@ -544,14 +626,15 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
         mainHandler.post(new Runnable() {
             @Override
             public void run() {
-                final OfflineRegionProgressObserver foundObserver = getObserver(packName);
+                final OfflineRegionProgressObserver foundObserver = offlinePacks.getByName(packName);
 
                 if (foundObserver == null) {
                     promise.resolve(Arguments.createMap());
                     return;
                 }
 
-                offlinePackObservers.remove(foundObserver);
+                offlinePacks.remove(foundObserver.region.getID());
+                downloadScheduler.remove(foundObserver);
                 foundObserver.invalidate();
                 foundObserver.region.setDownloadState(OfflineRegion.STATE_INACTIVE);
                 foundObserver.region.delete(new OfflineRegion.OfflineRegionDeleteCallback() {
@@ -576,14 +659,14 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
         mainHandler.post(new Runnable() {
             @Override
             public void run() {
-                final OfflineRegionProgressObserver foundObserver = getObserver(packName);
+                final OfflineRegionProgressObserver foundObserver = offlinePacks.getByName(packName);
 
                 if (foundObserver == null) {
                     promise.resolve(Arguments.createMap());
                     return;
                 }
 
-                foundObserver.region.setDownloadState(OfflineRegion.STATE_INACTIVE);
+                downloadScheduler.suspend(foundObserver);
                 foundObserver.region.getStatus(new OfflineRegion.OfflineRegionStatusCallback() {
                     @Override
                     public void onStatus(OfflineRegionStatus status) {
@@ -607,14 +690,15 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
         mainHandler.post(new Runnable() {
             @Override
             public void run() {
-                final OfflineRegionProgressObserver foundObserver = getObserver(packName);
+                final OfflineRegionProgressObserver foundObserver = offlinePacks.getByName(packName);
 
                 if (foundObserver == null) {
                     promise.resolve(Arguments.createMap());
                     return;
                 }
 
-                foundObserver.region.setDownloadState(OfflineRegion.STATE_ACTIVE);
+                // Waits for a free slot if too many packs are downloading
+                downloadScheduler.request(foundObserver, foundObserver.priority);
                 foundObserver.region.getStatus(new OfflineRegion.OfflineRegionStatusCallback() {
                     @Override
                     public void onStatus(OfflineRegionStatus status) {
@@ -633,17 +717,45 @@ public class ReactNativeMapboxGLModule extends ReactContextBaseJavaModule {
         });
     }
 
-    OfflineRegionProgressObserver getObserver(String name) {
-        OfflineRegionProgressObserver foundObserver = null;
+    // Offline download scheduling
 
-        for (OfflineRegionProgressObserver observer : offlinePackObservers) {
-            if (name.equals(observer.name)) {
-                foundObserver = observer;
-                break;
+    @ReactMethod
+    public void setOfflinePackMaxConcurrentDownloads(final int count) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                downloadScheduler.setMaxActive(count);
             }
+        });
+    }
+
+    @ReactMethod
+    public void setOfflinePackDownloadOrder(final String order) {
+        if (!order.equals("fifo") && !order.equals("priority")) {
+            throw new JSApplicationIllegalArgumentException("setOfflinePackDownloadOrder(): Unknown order " + order +
+                    ". Use \"fifo\" or \"priority\".");
         }
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                downloadScheduler.setOrder(order.equals("priority")
+                        ? RNMGLOfflineDownloadScheduler.ORDER_PRIORITY
+                        : RNMGLOfflineDownloadScheduler.ORDER_FIFO);
+            }
+        });
+    }
 
-        return foundObserver;
+    @ReactMethod
+    public void setOfflinePackPriority(final String packName, final int priority) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                OfflineRegionProgressObserver foundObserver = offlinePacks.getByName(packName);
+                if (foundObserver == null) { return; }
+                foundObserver.priority = priority;
+                downloadScheduler.setPriority(foundObserver, priority);
+            }
+        });
     }
 
     // Offline throttle control
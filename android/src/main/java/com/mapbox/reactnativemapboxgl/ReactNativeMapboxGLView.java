@@ -1,12 +1,14 @@
 package com.mapbox.reactnativemapboxgl;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.PointF;
 import android.hardware.GeomagneticField;
 import android.location.Location;
 import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.support.annotation.UiThread;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
@@ -16,12 +18,14 @@ import android.widget.RelativeLayout;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.touch.OnInterceptTouchEventListener;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
-import com.google.common.collect.Sets;
 import com.mapbox.mapboxsdk.annotations.Annotation;
+import com.mapbox.mapboxsdk.annotations.Icon;
 import com.mapbox.mapboxsdk.annotations.Marker;
+import com.mapbox.mapboxsdk.annotations.MarkerOptions;
 import com.mapbox.mapboxsdk.annotations.MarkerView;
 import com.mapbox.mapboxsdk.camera.CameraPosition;
 import com.mapbox.mapboxsdk.camera.CameraUpdate;
@@ -35,9 +39,14 @@ import com.mapbox.mapboxsdk.maps.OnMapReadyCallback;
 import com.mapbox.mapboxsdk.maps.UiSettings;
 import com.mapbox.services.commons.geojson.Feature;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.ArrayList;
@@ -79,12 +88,72 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
     private boolean _didChangeThrottled = false;
     private boolean _changeWasAnimated = false;
 
+    // Region change events: the first change is emitted right away, later ones within the throttle
+    // interval are coalesced into one trailing event. An interval of 0 aligns them to frames.
+    private static final double REGION_CHANGE_EPSILON = 1e-7;
+    private int _regionChangeThrottleInterval = 100;
+    private final double[] _lastWillChangeRegion = emptyRegion();
+    private final double[] _lastDidChangeRegion = emptyRegion();
+    private int _regionChangeEventsEmitted = 0;
+    private int _regionChangeEventsSuppressed = 0;
+
+    // Camera change events: the camera is sampled once per frame while it moves, and sent at most
+    // _cameraChangeMaxRate times per second (every frame when 0)
+    private boolean _enableOnCameraChanged = false;
+    private int _cameraChangeMaxRate = 0;
+    private boolean _cameraSampleScheduled = false;
+    private long _lastCameraChangeNanos = 0;
+    private final double[] _lastCameraChange = emptyRegion();
+    private int _cameraChangeSamples = 0;
+    private int _cameraChangeEventsEmitted = 0;
+
     private Map<String, Annotation> _annotations = new HashMap<>();
+    // Name of each marker waiting for a remote icon, to the key of the icon it should get
+    private Map<String, String> _pendingIconKeys = new HashMap<>();
     private Map<Long, String> _annotationIdsToName = new HashMap<>();
     private Map<String, RNMGLAnnotationOptions> _annotationOptions = new HashMap<>();
     private Map<String, MarkerView> _customAnnodationIds = new HashMap<>();
     private Map<String, RNMGLAnnotationView> _customAnnotationViewMap = new HashMap<>();
     private Map<RNMGLAnnotationView, RNMGLAnnotationView.PropertyListener> _propertyListeners = new HashMap<>();
+    private RNMGLCustomMarkerViewAdapter _markerViewAdapter;
+    private RNMGLMarkerAnimator _markerAnimator;
+    private int _animatedAnnotationMoves = 0;
+    // Culling and clustering wait for animated point annotations to arrive
+    private boolean _annotationMovesPending = false;
+    private Map<String, Marker> _rasterizedAnnotationMarkers = new HashMap<>();
+    private Set<RNMGLAnnotationView> _dirtyRasterizedViews = new LinkedHashSet<>();
+    // Cache key of the snapshot of each view that no other view can share
+    private Map<RNMGLAnnotationView, String> _ownRasterizedIconKeys = new HashMap<>();
+    private boolean _rasterizedViewRefreshScheduled = false;
+    private int _rasterizedAnnotationRenders = 0;
+    private RNMGLAnnotationViewChanges _pendingAnnotationViewChanges = new RNMGLAnnotationViewChanges();
+    private boolean _annotationViewReconciliationScheduled = false;
+    private int _annotationViewMutations = 0;
+    private int _annotationViewReconciliations = 0;
+    private int _inPlaceAnnotationUpdates = 0;
+
+    // Viewport culling: all annotations are kept in _annotationOptions and indexed by bounding box,
+    // only those intersecting the viewport plus a margin are added to the map
+    private static final double CULLING_MARGIN = 0.5;
+    private boolean _annotationsCullingEnabled = false;
+    private RNMGLAnnotationIndex _annotationIndex = new RNMGLAnnotationIndex();
+    private double[] _cullingBounds;
+    private int _replacedAnnotationUpdates = 0;
+
+    // Clustering: markers are only added to the map when they are not part of a cluster at the
+    // current zoom level. Clusters get their own markers, keyed by position and point count:
+    // cluster ids change whenever the index is rebuilt, the clusters themselves mostly don't.
+    private boolean _annotationsClusteringEnabled = false;
+    private RNMGLMarkerClusterer _clusterer;
+    private Set<String> _visibleClusterLeaves = new HashSet<>();
+    private Map<String, Marker> _clusterMarkers = new HashMap<>();
+    private Map<Long, Integer> _clusterIdsByMarkerId = new HashMap<>();
+    private int _reusedClusterMarkers = 0;
+
+    // Simplified polylines and polygons are updated when the integer zoom level changes
+    private int _simplificationZoomLevel = -1;
+    private int _simplifiedAnnotationUpdates = 0;
+    private long _lastSimplificationNanos = 0;
 
     private Handler _handler;
 
@@ -99,6 +168,18 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         _mapOptions.rotateGesturesEnabled(true);
         _mapOptions.scrollGesturesEnabled(true);
         _mapOptions.tiltGesturesEnabled(true);
+        _clusterer = new RNMGLMarkerClusterer(_annotationOptions, new RNMGLMarkerClusterer.Listener() {
+            @Override
+            public void onClustersChanged() {
+                refreshVisibleAnnotations();
+            }
+        });
+        _markerAnimator = new RNMGLMarkerAnimator(new RNMGLMarkerAnimator.Listener() {
+            @Override
+            public void onMovesFinished() {
+                refreshMovedAnnotations();
+            }
+        });
     }
 
     // Lifecycle methods
@@ -114,13 +195,18 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
     public void onDrop() {
         if (_mapView == null) { return; }
         _manager.getContext().removeLifecycleEventListener(this);
-        _manager.removeChildListener(this);
+        _manager.removeChildListener(this, this);
         if (!_paused) {
             _paused = true;
             _mapView.onPause();
         }
         destroyMapView();
         _mapView = null;
+        _relayoutScheduler.cancel();
+        cancelRegionChangedFlush();
+        cancelCameraSample();
+        _markerAnimator.clear();
+        _clusterer.release();
     }
 
     @Override
@@ -198,16 +284,10 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         _map.setOnInfoWindowClickListener(this);
 
         // Create annotations
-        for (Map.Entry<String, RNMGLAnnotationOptions> entry : _annotationOptions.entrySet()) {
-            Annotation annotation = entry.getValue().addToMap(_map);
-            _annotations.put(entry.getKey(), annotation);
-            _annotationIdsToName.put(annotation.getId(), entry.getKey());
-        }
+        refreshVisibleAnnotations();
 
-        _annotationOptions.clear();
-
-        _map.getMarkerViewManager().addMarkerViewAdapter(
-                new RNMGLCustomMarkerViewAdapter(getContext()));
+        _markerViewAdapter = new RNMGLCustomMarkerViewAdapter(getContext());
+        _map.getMarkerViewManager().addMarkerViewAdapter(_markerViewAdapter);
     }
 
     private void destroyMapView() {
@@ -227,71 +307,211 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
 
     // Children
 
+    // Added and removed annotation views are queued, and applied together once the current batch
+    // of React view operations is done. An add and a remove of the same view cancel out.
+
     @Override
     public void childAdded(View child) {
-        if (child instanceof RNMGLAnnotationView) {
-            updateMarkerAnnotations();
-        }
+        if (!(child instanceof RNMGLAnnotationView)) { return; }
+        RNMGLAnnotationView annotationView = (RNMGLAnnotationView) child;
+        _annotationViewMutations++;
+        _pendingAnnotationViewChanges.added(annotationView);
+        scheduleAnnotationViewReconciliation();
     }
 
     @Override
     public void childRemoved(View child) {
-        if (child instanceof RNMGLAnnotationView) {
-            updateMarkerAnnotations();
-        }
+        if (!(child instanceof RNMGLAnnotationView)) { return; }
+        RNMGLAnnotationView annotationView = (RNMGLAnnotationView) child;
+        _annotationViewMutations++;
+        _pendingAnnotationViewChanges.removed(annotationView);
+        scheduleAnnotationViewReconciliation();
+    }
+
+    private void scheduleAnnotationViewReconciliation() {
+        if (_annotationViewReconciliationScheduled) { return; }
+        _annotationViewReconciliationScheduled = true;
+        _handler.post(_reconcileAnnotationViews);
     }
 
+    private final Runnable _reconcileAnnotationViews = new Runnable() {
+        @Override
+        public void run() {
+            _annotationViewReconciliationScheduled = false;
+            if (_map == null) {
+                // A full update runs once the map has loaded
+                _pendingAnnotationViewChanges.clear();
+                return;
+            }
+            if (_pendingAnnotationViewChanges.isEmpty()) { return; }
+
+            _annotationViewReconciliations++;
+            for (RNMGLAnnotationView annotationView : _pendingAnnotationViewChanges.getRemoved()) {
+                removeAnnotationView(annotationView);
+            }
+            for (RNMGLAnnotationView annotationView : _pendingAnnotationViewChanges.getAdded()) {
+                addAnnotationView(annotationView);
+            }
+            _pendingAnnotationViewChanges.clear();
+
+            relayout();
+        }
+    };
+
+    /**
+     * Brings the marker views in line with all the annotation views of the map, after listeners
+     * were detached while the map was loading.
+     */
     private void updateMarkerAnnotations() {
-        Set<RNMGLAnnotationView> newAnnotationViews = new HashSet<>(_manager.getAnnotationViews(this));
-        Set<RNMGLAnnotationView> currentViews = new HashSet<>(_customAnnotationViewMap.values());
-        Collection<RNMGLAnnotationView> addedChildren = Sets.difference(newAnnotationViews, currentViews);
-        Collection<RNMGLAnnotationView> removedChildren = Sets.difference(currentViews, newAnnotationViews);
+        _pendingAnnotationViewChanges.clear();
 
-        for (RNMGLAnnotationView annotationView : removedChildren) {
-            annotationView.removePropertyListener(_propertyListeners.get(annotationView));
-            _customAnnotationViewMap.remove(annotationView.getAnnotationId());
-            MarkerView markerView = _customAnnodationIds.remove(annotationView.getAnnotationId());
-            _map.removeMarker(markerView);
+        Collection<RNMGLAnnotationView> annotationViews = _manager.getAnnotationViews(this);
+        for (RNMGLAnnotationView annotationView : new ArrayList<>(_customAnnotationViewMap.values())) {
+            if (!annotationViews.contains(annotationView)) {
+                removeAnnotationView(annotationView);
+            }
+        }
+        for (RNMGLAnnotationView annotationView : annotationViews) {
+            if (_customAnnotationViewMap.get(annotationView.getAnnotationId()) != annotationView) {
+                addAnnotationView(annotationView);
+            }
         }
 
-        for (RNMGLAnnotationView annotationView : addedChildren) {
-            _customAnnotationViewMap.put(annotationView.getAnnotationId(), annotationView);
+        relayout();
+    }
+
+    private void addAnnotationView(RNMGLAnnotationView annotationView) {
+        _customAnnotationViewMap.put(annotationView.getAnnotationId(), annotationView);
+        final Marker marker;
+        final boolean rasterized = annotationView.isRasterized();
+        if (rasterized) {
+            // A static snapshot drawn by GL instead of a live view
+            marker = _map.addMarker(new MarkerOptions()
+                    .position(annotationView.getCoordinate())
+                    .icon(rasterizedIcon(annotationView)));
+            _rasterizedAnnotationMarkers.put(annotationView.getAnnotationId(), marker);
+        } else {
             RNMGLCustomMarkerViewOptions options = new RNMGLCustomMarkerViewOptions()
                     .annotationId(annotationView.getAnnotationId())
                     .position(annotationView.getCoordinate())
                     .anchor(0.5f, 0.5f)
                     .flat(true);
-            final MarkerView markerView = _map.addMarker(options);
-            _customAnnodationIds.put(annotationView.getAnnotationId(), markerView);
-            _annotationIdsToName.put(markerView.getId(), annotationView.getAnnotationId());
-            RNMGLAnnotationView.PropertyListener propertyListener = new RNMGLAnnotationView.PropertyListener() {
-                @Override
-                public void propertiesUpdated(RNMGLAnnotationView view) {
-                    markerView.setPosition(view.getCoordinate());
+            marker = _map.addMarker(options);
+            _customAnnodationIds.put(annotationView.getAnnotationId(), (MarkerView) marker);
+        }
+        _annotationIdsToName.put(marker.getId(), annotationView.getAnnotationId());
+        RNMGLAnnotationView.PropertyListener propertyListener = new RNMGLAnnotationView.PropertyListener() {
+            @Override
+            public void propertiesUpdated(RNMGLAnnotationView view) {
+                if (view.isRasterized() != rasterized) {
+                    // Switching between a snapshot and a live view needs a different marker
+                    _pendingAnnotationViewChanges.replaced(view);
+                    scheduleAnnotationViewReconciliation();
+                    return;
+                }
+                LatLng target = _markerAnimator.getTarget(marker);
+                if (!view.getCoordinate().equals(target != null ? target : marker.getPosition())) {
+                    // Applied with the other moves on the next frame
+                    _markerAnimator.moveTo(marker, view.getCoordinate(), view.getCoordinateAnimationDuration());
                 }
-            };
-            annotationView.addPropertyListener(propertyListener);
-            _propertyListeners.put(annotationView, propertyListener);
+                if (rasterized) { scheduleRasterizedViewRefresh(view); }
+            }
+        };
+        annotationView.addPropertyListener(propertyListener);
+        _propertyListeners.put(annotationView, propertyListener);
+    }
+
+    private void removeAnnotationView(RNMGLAnnotationView annotationView) {
+        annotationView.removePropertyListener(_propertyListeners.remove(annotationView));
+        if (_customAnnotationViewMap.get(annotationView.getAnnotationId()) != annotationView) { return; }
+        _customAnnotationViewMap.remove(annotationView.getAnnotationId());
+        _dirtyRasterizedViews.remove(annotationView);
+        String iconKey = _ownRasterizedIconKeys.remove(annotationView);
+        if (iconKey != null) {
+            RNMGLIconLoader.getInstance(getContext()).removeCachedIcon(iconKey);
+        }
+        Marker marker = _customAnnodationIds.remove(annotationView.getAnnotationId());
+        if (marker == null) {
+            marker = _rasterizedAnnotationMarkers.remove(annotationView.getAnnotationId());
         }
+        if (marker != null) {
+            _markerAnimator.cancel(marker);
+            _annotationIdsToName.remove(marker.getId());
+            _map.removeMarker(marker);
+        }
+    }
 
-        relayout();
+    // Rasterized annotation views
+
+    private Icon rasterizedIcon(RNMGLAnnotationView annotationView) {
+        RNMGLIconLoader loader = RNMGLIconLoader.getInstance(getContext());
+        String key = annotationView.getRasterContentKey();
+        int width = (int) annotationView.getLayoutWidth();
+        int height = (int) annotationView.getLayoutHeight();
+
+        Icon icon = loader.getCachedIcon(key, width, height);
+        if (icon == null) {
+            Bitmap bitmap = annotationView.rasterize();
+            if (bitmap == null) {
+                // Not laid out yet, the size change will trigger a refresh
+                return loader.getPlaceholder(1, 1);
+            }
+            _rasterizedAnnotationRenders++;
+            icon = loader.iconFromBitmap(bitmap);
+            loader.putCachedIcon(key, width, height, icon);
+        }
+
+        // Older snapshots of a view's own content can't be used again
+        String iconKey = RNMGLIconLoader.cacheKey(key, width, height);
+        String previousKey = annotationView.hasSharedRasterContent()
+                ? _ownRasterizedIconKeys.remove(annotationView)
+                : _ownRasterizedIconKeys.put(annotationView, iconKey);
+        if (previousKey != null && !previousKey.equals(iconKey)) {
+            loader.removeCachedIcon(previousKey);
+        }
+        return icon;
+    }
+
+    // Props and layout of a view change in the same batch of React operations, so the snapshot
+    // is taken once that batch is done
+    private void scheduleRasterizedViewRefresh(RNMGLAnnotationView annotationView) {
+        _dirtyRasterizedViews.add(annotationView);
+        if (_rasterizedViewRefreshScheduled) { return; }
+        _rasterizedViewRefreshScheduled = true;
+        _handler.post(_refreshRasterizedViews);
     }
 
+    private final Runnable _refreshRasterizedViews = new Runnable() {
+        @Override
+        public void run() {
+            _rasterizedViewRefreshScheduled = false;
+            for (RNMGLAnnotationView annotationView : _dirtyRasterizedViews) {
+                Marker marker = _rasterizedAnnotationMarkers.get(annotationView.getAnnotationId());
+                if (_map == null || marker == null) { continue; }
+                Icon icon = rasterizedIcon(annotationView);
+                if (icon != marker.getIcon()) { marker.setIcon(icon); }
+            }
+            _dirtyRasterizedViews.clear();
+        }
+    };
+
     private void relayout() {
         // Need a relayout to show custom marker views
-        _handler.post(new Runnable() {
-            @Override
-            public void run() {
-                if(_mapView != null) {
-                    _mapView.measure(
-                            View.MeasureSpec.makeMeasureSpec(_mapView.getMeasuredWidth(), View.MeasureSpec.EXACTLY),
-                            View.MeasureSpec.makeMeasureSpec(_mapView.getMeasuredHeight(), View.MeasureSpec.EXACTLY));
-                    _mapView.layout(_mapView.getLeft(), _mapView.getTop(), _mapView.getRight(), _mapView.getBottom());
-                }
-            }
-        });
+        _relayoutScheduler.request();
     }
 
+    private final RNMGLRelayoutScheduler _relayoutScheduler = new RNMGLRelayoutScheduler(new Runnable() {
+        @Override
+        public void run() {
+            if(_mapView != null) {
+                _mapView.measure(
+                        View.MeasureSpec.makeMeasureSpec(_mapView.getMeasuredWidth(), View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(_mapView.getMeasuredHeight(), View.MeasureSpec.EXACTLY));
+                _mapView.layout(_mapView.getLeft(), _mapView.getTop(), _mapView.getRight(), _mapView.getBottom());
+            }
+        }
+    });
+
     // Props
 
     public void setInitialZoomLevel(double value) {
@@ -314,6 +534,19 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         _enableOnRegionWillChange = value;
     }
 
+    public void setRegionChangeThrottleInterval(int value) {
+        _regionChangeThrottleInterval = Math.max(0, value);
+    }
+
+    public void setEnableOnCameraChanged(boolean value) {
+        _enableOnCameraChanged = value;
+        if (!value) { cancelCameraSample(); }
+    }
+
+    public void setCameraChangeMaxRate(int value) {
+        _cameraChangeMaxRate = Math.max(0, value);
+    }
+
     public void setShowsUserLocation(boolean value) {
         if (_showsUserLocation == value) { return; }
         _showsUserLocation = value;
@@ -372,6 +605,30 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         _annotationsPopUpEnabled = value;
     }
 
+    public void setAnnotationsCullingEnabled(boolean value) {
+        if (_annotationsCullingEnabled == value) { return; }
+        _annotationsCullingEnabled = value;
+        _cullingBounds = null;
+        refreshVisibleAnnotations();
+    }
+
+    public void setAnnotationsClusteringEnabled(boolean value) {
+        if (_annotationsClusteringEnabled == value) { return; }
+        _annotationsClusteringEnabled = value;
+        if (value) {
+            _clusterer.invalidate();
+        } else {
+            _clusterer.release();
+            _visibleClusterLeaves.clear();
+            removeClusterMarkers();
+        }
+        refreshVisibleAnnotations();
+    }
+
+    public void setAnnotationsClusterRadius(int value) {
+        _clusterer.setRadius(value);
+    }
+
     public void setStyleURL(String styleURL) {
         if (styleURL.equals(_mapOptions.getStyle())) { return; }
         _mapOptions.styleUrl(styleURL);
@@ -545,11 +802,13 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         _handler.post(new TrackingModeChangeRunnable(this));
     }
 
-    WritableMap serializeCurrentRegion(boolean animated) {
-        CameraPosition camera = _map == null
+    private CameraPosition getCurrentCamera() {
+        return _map == null
                 ? _initialCamera.build()
                 : _map.getCameraPosition();
+    }
 
+    WritableMap serializeRegion(CameraPosition camera, boolean animated) {
         WritableMap event = Arguments.createMap();
         WritableMap src = Arguments.createMap();
         src.putDouble("longitude", camera.target.getLongitude());
@@ -562,29 +821,88 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         return event;
     }
 
-    class RegionChangedThrottleRunnable implements Runnable {
-        ReactNativeMapboxGLView target;
-        RegionChangedThrottleRunnable(ReactNativeMapboxGLView target) {
-            this.target = target;
+    private static double[] emptyRegion() {
+        double[] region = new double[6];
+        Arrays.fill(region, Double.NaN);
+        return region;
+    }
+
+    /**
+     * Stores the camera into region unless it moved less than REGION_CHANGE_EPSILON on every axis
+     * since it was last stored there. Returns whether it was stored.
+     */
+    private static boolean updateRegion(double[] region, CameraPosition camera, boolean animated) {
+        double animatedFlag = animated ? 1 : 0;
+        if (Math.abs(camera.target.getLatitude() - region[0]) < REGION_CHANGE_EPSILON
+                && Math.abs(camera.target.getLongitude() - region[1]) < REGION_CHANGE_EPSILON
+                && Math.abs(camera.zoom - region[2]) < REGION_CHANGE_EPSILON
+                && Math.abs(camera.bearing - region[3]) < REGION_CHANGE_EPSILON
+                && Math.abs(camera.tilt - region[4]) < REGION_CHANGE_EPSILON
+                && animatedFlag == region[5]) {
+            return false;
         }
+        region[0] = camera.target.getLatitude();
+        region[1] = camera.target.getLongitude();
+        region[2] = camera.zoom;
+        region[3] = camera.bearing;
+        region[4] = camera.tilt;
+        region[5] = animatedFlag;
+        return true;
+    }
+
+    // Emits a region change event unless the camera hasn't moved since the last one of its kind
+    private void emitRegionChange(String name, double[] lastRegion, boolean animated) {
+        CameraPosition camera = getCurrentCamera();
+        if (!updateRegion(lastRegion, camera, animated)) {
+            _regionChangeEventsSuppressed++;
+            return;
+        }
+        emitEvent(name, serializeRegion(camera, animated));
+        _regionChangeEventsEmitted++;
+    }
+
+    // Both flush the trailing events at the end of a throttle interval, one is posted with a delay
+    // and the other on the next frame
+    private final Runnable _regionChangedThrottleRunnable = new Runnable() {
         @Override
         public void run() {
-            target.flushRegionChangedThrottle(true);
+            flushRegionChangedThrottle(true);
+        }
+    };
+
+    private final Choreographer.FrameCallback _regionChangedFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            flushRegionChangedThrottle(true);
+        }
+    };
+
+    private void scheduleRegionChangedFlush() {
+        _recentlyChanged = true;
+        if (_regionChangeThrottleInterval > 0) {
+            _handler.postDelayed(_regionChangedThrottleRunnable, _regionChangeThrottleInterval);
+        } else {
+            Choreographer.getInstance().postFrameCallback(_regionChangedFrameCallback);
         }
     }
 
+    private void cancelRegionChangedFlush() {
+        _handler.removeCallbacks(_regionChangedThrottleRunnable);
+        Choreographer.getInstance().removeFrameCallback(_regionChangedFrameCallback);
+    }
+
     private void flushRegionChangedThrottle(boolean fireAgain) {
+        if (!fireAgain) { cancelRegionChangedFlush(); }
         _recentlyChanged = false;
         if (_willChangeThrottled) {
-            emitEvent(ReactNativeMapboxGLEventTypes.ON_REGION_WILL_CHANGE, serializeCurrentRegion(_changeWasAnimated));
+            emitRegionChange(ReactNativeMapboxGLEventTypes.ON_REGION_WILL_CHANGE, _lastWillChangeRegion, _changeWasAnimated);
         }
         if (_didChangeThrottled) {
-            emitEvent(ReactNativeMapboxGLEventTypes.ON_REGION_DID_CHANGE, serializeCurrentRegion(_changeWasAnimated));
+            emitRegionChange(ReactNativeMapboxGLEventTypes.ON_REGION_DID_CHANGE, _lastDidChangeRegion, _changeWasAnimated);
         }
 
         if (fireAgain && _didChangeThrottled) {
-            _recentlyChanged = true;
-            _handler.postDelayed(new RegionChangedThrottleRunnable(this), 100);
+            scheduleRegionChangedFlush();
         }
         _willChangeThrottled = false;
         _didChangeThrottled = false;
@@ -596,10 +914,12 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         }
 
         if (_recentlyChanged) {
+            // An event already waiting for the end of the interval is replaced by this one
+            if (_willChangeThrottled) { _regionChangeEventsSuppressed++; }
             _willChangeThrottled = true;
             _changeWasAnimated = animated;
         } else {
-            emitEvent(ReactNativeMapboxGLEventTypes.ON_REGION_WILL_CHANGE, serializeCurrentRegion(animated));
+            emitRegionChange(ReactNativeMapboxGLEventTypes.ON_REGION_WILL_CHANGE, _lastWillChangeRegion, animated);
         }
     }
 
@@ -609,17 +929,84 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         }
 
         if (_recentlyChanged) {
+            if (_didChangeThrottled) { _regionChangeEventsSuppressed++; }
             _didChangeThrottled = true;
             _changeWasAnimated = animated;
         } else {
-            emitEvent(ReactNativeMapboxGLEventTypes.ON_REGION_DID_CHANGE, serializeCurrentRegion(animated));
-            _recentlyChanged = true;
-            _handler.postDelayed(new RegionChangedThrottleRunnable(this), 100);
+            emitRegionChange(ReactNativeMapboxGLEventTypes.ON_REGION_DID_CHANGE, _lastDidChangeRegion, animated);
+            scheduleRegionChangedFlush();
+        }
+    }
+
+    // Camera change events
+
+    private final Choreographer.FrameCallback _cameraSampleCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            _cameraSampleScheduled = false;
+            sampleCamera(frameTimeNanos);
         }
+    };
+
+    private void scheduleCameraSample() {
+        if (_cameraSampleScheduled) { return; }
+        _cameraSampleScheduled = true;
+        Choreographer.getInstance().postFrameCallback(_cameraSampleCallback);
+    }
+
+    private void cancelCameraSample() {
+        if (!_cameraSampleScheduled) { return; }
+        _cameraSampleScheduled = false;
+        Choreographer.getInstance().removeFrameCallback(_cameraSampleCallback);
+    }
+
+    /**
+     * Sends the camera if it moved since the last event. Sampling continues on the following
+     * frames until the camera stops moving, so the final position always gets sent.
+     */
+    private void sampleCamera(long frameTimeNanos) {
+        if (_map == null || !_enableOnCameraChanged) { return; }
+        _cameraChangeSamples++;
+
+        if (_cameraChangeMaxRate > 0 && frameTimeNanos - _lastCameraChangeNanos < 1000000000L / _cameraChangeMaxRate) {
+            // Too early, try again on the next frame
+            scheduleCameraSample();
+            return;
+        }
+
+        CameraPosition camera = _map.getCameraPosition();
+        if (!updateRegion(_lastCameraChange, camera, false)) { return; }
+        _lastCameraChangeNanos = frameTimeNanos;
+
+        // Sent as a flat array to keep the payload small
+        WritableArray values = Arguments.createArray();
+        values.pushDouble(camera.target.getLatitude());
+        values.pushDouble(camera.target.getLongitude());
+        values.pushDouble(camera.zoom);
+        values.pushDouble(camera.bearing);
+        values.pushDouble(camera.tilt);
+        WritableMap event = Arguments.createMap();
+        event.putArray("camera", values);
+        emitEvent(ReactNativeMapboxGLEventTypes.ON_CAMERA_CHANGED, event);
+        _cameraChangeEventsEmitted++;
+
+        scheduleCameraSample();
     }
 
     @Override
     public void onMapChanged(int change) {
+        if (_enableOnCameraChanged) {
+            switch (change) {
+                case MapView.REGION_WILL_CHANGE:
+                case MapView.REGION_WILL_CHANGE_ANIMATED:
+                case MapView.REGION_IS_CHANGING:
+                case MapView.REGION_DID_CHANGE:
+                case MapView.REGION_DID_CHANGE_ANIMATED:
+                    scheduleCameraSample();
+                    break;
+            }
+        }
+
         switch (change) {
             case MapView.REGION_WILL_CHANGE:
             case MapView.REGION_WILL_CHANGE_ANIMATED:
@@ -629,17 +1016,24 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
                 break;
             case MapView.REGION_DID_CHANGE:
             case MapView.REGION_DID_CHANGE_ANIMATED:
+                if (_annotationsCullingEnabled || _annotationsClusteringEnabled) {
+                    refreshVisibleAnnotations();
+                }
+                updateZoomDependentAnnotations();
                 if (_enableOnRegionDidChange) {
                     onRegionDidChange(change == MapView.REGION_DID_CHANGE_ANIMATED);
                 }
                 break;
             case MapView.WILL_START_LOADING_MAP:
-                _manager.removeChildListener(this);
+                _manager.removeChildListener(this, this);
                 emitEvent(ReactNativeMapboxGLEventTypes.ON_START_LOADING_MAP, null);
                 break;
             case MapView.DID_FINISH_LOADING_MAP:
-                _manager.addChildListener(this);
+                _manager.addChildListener(this, this);
                 updateMarkerAnnotations();
+                if (_annotationsCullingEnabled || _annotationsClusteringEnabled) {
+                    refreshVisibleAnnotations();
+                }
                 emitEvent(ReactNativeMapboxGLEventTypes.ON_FINISH_LOADING_MAP, null);
                 break;
         }
@@ -665,8 +1059,33 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         return false;
     }
 
+    WritableMap serializeCluster(int clusterId, Marker marker) {
+        WritableMap event = Arguments.createMap();
+        WritableMap src = Arguments.createMap();
+
+        WritableArray ids = Arguments.createArray();
+        for (String name : _clusterer.getLeaves(clusterId)) {
+            ids.pushString(name);
+        }
+
+        src.putDouble("longitude", marker.getPosition().getLongitude());
+        src.putDouble("latitude", marker.getPosition().getLatitude());
+        src.putInt("pointCount", ids.size());
+        src.putInt("expansionZoomLevel", _clusterer.getExpansionZoom(clusterId));
+        src.putArray("ids", ids);
+
+        event.putMap("src", src);
+        return event;
+    }
+
     @Override
     public boolean onMarkerClick(@NonNull Marker marker) {
+        Integer clusterId = _clusterIdsByMarkerId.get(marker.getId());
+        if (clusterId != null) {
+            emitEvent(ReactNativeMapboxGLEventTypes.ON_EXPAND_CLUSTER, serializeCluster(clusterId, marker));
+            return true;
+        }
+
         emitEvent(ReactNativeMapboxGLEventTypes.ON_OPEN_ANNOTATION, serializeMarker(marker));
 
         if (_annotationsPopUpEnabled == false) { return true; }
@@ -733,13 +1152,12 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
     // Annotations
 
     @Nullable Annotation _removeAnnotation(String name, boolean keep) {
-        if (_map == null) {
-            _annotationOptions.remove(name);
-            return null;
-        }
+        if (_map == null) { return null; }
         Annotation annotation = _annotations.remove(name);
         if (annotation == null) { return null; }
         _annotationIdsToName.remove(annotation.getId());
+        _pendingIconKeys.remove(name);
+        if (annotation instanceof Marker) { _markerAnimator.cancel((Marker) annotation); }
 
         if (keep) { return annotation; }
         _map.removeAnnotation(annotation);
@@ -747,30 +1165,408 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
     }
 
     public void removeAnnotation(String name) {
+        _annotationOptions.remove(name);
+        _annotationIndex.remove(name);
         _removeAnnotation(name, false);
+        if (_annotationsClusteringEnabled) { _clusterer.invalidate(); }
+    }
+
+    public void removeAnnotations(List<String> names) {
+        List<Annotation> removed = new ArrayList<>(names.size());
+        for (String name : names) {
+            _annotationOptions.remove(name);
+            _annotationIndex.remove(name);
+            Annotation annotation = _removeAnnotation(name, true);
+            if (annotation != null) { removed.add(annotation); }
+        }
+        if (!removed.isEmpty()) { _map.removeAnnotations(removed); }
+        if (_annotationsClusteringEnabled) { _clusterer.invalidate(); }
     }
 
     public void removeAllAnnotations() {
+        for (Annotation annotation : _annotations.values()) {
+            if (annotation instanceof Marker) { _markerAnimator.cancel((Marker) annotation); }
+        }
         _annotationOptions.clear();
+        _annotationIndex.clear();
         _annotations.clear();
         _annotationIdsToName.clear();
+        _pendingIconKeys.clear();
+        _visibleClusterLeaves.clear();
+        _clusterMarkers.clear();
+        _clusterIdsByMarkerId.clear();
+        if (_annotationsClusteringEnabled) { _clusterer.invalidate(); }
         if (_map != null) {
             _map.removeAnnotations();
         }
     }
 
     public void setAnnotation(String name, RNMGLAnnotationOptions options) {
-        Annotation removed = _removeAnnotation(name, true);
+        setAnnotations(Collections.singletonList(name), Collections.singletonList(options));
+    }
 
-        if (_map == null) {
-            _annotationOptions.put(name, options);
+    public void setAnnotations(List<String> names, List<RNMGLAnnotationOptions> options) {
+        // A name may appear more than once in a splice. Only the last entry is kept, otherwise both
+        // would be added to the map and the first one would never be removed.
+        Map<String, RNMGLAnnotationOptions> updates = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            updates.put(names.get(i), options.get(i));
+        }
+
+        for (Map.Entry<String, RNMGLAnnotationOptions> entry : updates.entrySet()) {
+            _annotationOptions.put(entry.getKey(), entry.getValue());
+            _annotationIndex.put(entry.getKey(), entry.getValue().getBounds());
+        }
+        if (_annotationsClusteringEnabled) { _clusterer.invalidate(); }
+
+        if (_map == null) { return; }
+        if (_annotationsCullingEnabled && _cullingBounds == null) { updateCullingBounds(); }
+
+        // Existing annotations are updated in place when possible. The others are added before
+        // removing the ones they replace to avoid flicker.
+        List<Annotation> removed = new ArrayList<>();
+        RNMGLAnnotationBatch batch = new RNMGLAnnotationBatch(_map.getCameraPosition().zoom);
+        for (Map.Entry<String, RNMGLAnnotationOptions> entry : updates.entrySet()) {
+            String name = entry.getKey();
+            RNMGLAnnotationOptions annotationOptions = entry.getValue();
+            Annotation existing = _annotations.get(name);
+            if (!shouldBeOnMap(name, annotationOptions)) {
+                if (existing != null) { removed.add(_removeAnnotation(name, true)); }
+                continue;
+            }
+            if (existing != null) {
+                // A position set from JS replaces any native move in progress
+                if (existing instanceof Marker) { _markerAnimator.cancel((Marker) existing); }
+                if (annotationOptions.updateAnnotation(_map, existing)) {
+                    _inPlaceAnnotationUpdates++;
+                    if (annotationOptions instanceof RNMGLMarkerOptions) {
+                        loadPendingIcon(name, (RNMGLMarkerOptions) annotationOptions, (Marker) existing);
+                    }
+                    continue;
+                }
+                _replacedAnnotationUpdates++;
+                removed.add(_removeAnnotation(name, true));
+            }
+            batch.add(name, annotationOptions);
+        }
+
+        addAnnotationBatch(batch);
+
+        if (!removed.isEmpty()) { _map.removeAnnotations(removed); }
+    }
+
+    /**
+     * Moves point annotations and custom annotation views to new positions over a duration. The
+     * markers are interpolated natively, so JS sends one message per move instead of one per step.
+     * The new positions are kept as if they had been set from JS.
+     */
+    public void animateAnnotations(List<String> names, double[] latitudes, double[] longitudes,
+                                   int[] durations, int[] easings) {
+        if (_map != null && _annotationsCullingEnabled && _cullingBounds == null) { updateCullingBounds(); }
+
+        boolean movedPoints = false;
+        boolean animatingPoints = false;
+        // Name of each marker that enters the viewport, to the index of its last move
+        Map<String, Integer> entering = new LinkedHashMap<>();
+        RNMGLAnnotationBatch enteringBatch = null;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            LatLng target = new LatLng(latitudes[i], longitudes[i]);
+
+            RNMGLAnnotationView annotationView = _customAnnotationViewMap.get(name);
+            if (annotationView != null) {
+                annotationView.moveCoordinate(target);
+                Marker marker = _customAnnodationIds.get(name);
+                if (marker == null) { marker = _rasterizedAnnotationMarkers.get(name); }
+                if (marker != null) {
+                    _markerAnimator.moveTo(marker, latitudes[i], longitudes[i], durations[i], easings[i]);
+                    _animatedAnnotationMoves++;
+                }
+                continue;
+            }
+
+            RNMGLAnnotationOptions options = _annotationOptions.get(name);
+            if (!(options instanceof RNMGLMarkerOptions)) { continue; }
+            RNMGLMarkerOptions moved = ((RNMGLMarkerOptions) options).withPosition(target);
+            _annotationOptions.put(name, moved);
+            _annotationIndex.put(name, moved.getBounds());
+            movedPoints = true;
+
+            Annotation existing = _annotations.get(name);
+            if (existing instanceof Marker) {
+                _markerAnimator.moveTo((Marker) existing, latitudes[i], longitudes[i], durations[i], easings[i]);
+                _animatedAnnotationMoves++;
+                animatingPoints = true;
+            } else if (entering.containsKey(name)) {
+                entering.put(name, i);
+            } else if (existing == null && _map != null && !_annotationsClusteringEnabled && shouldBeOnMap(name, moved)) {
+                // Moving into the viewport: added where it was, so it slides in instead of popping up
+                if (enteringBatch == null) { enteringBatch = new RNMGLAnnotationBatch(_map.getCameraPosition().zoom); }
+                enteringBatch.add(name, options);
+                entering.put(name, i);
+            }
+        }
+
+        if (enteringBatch != null) {
+            addAnnotationBatch(enteringBatch);
+            for (Map.Entry<String, Integer> entry : entering.entrySet()) {
+                int i = entry.getValue();
+                Annotation added = _annotations.get(entry.getKey());
+                if (!(added instanceof Marker)) { continue; }
+                _markerAnimator.moveTo((Marker) added, latitudes[i], longitudes[i], durations[i], easings[i]);
+                _animatedAnnotationMoves++;
+                animatingPoints = true;
+            }
+        }
+
+        if (!movedPoints || (!_annotationsClusteringEnabled && !_annotationsCullingEnabled)) { return; }
+        // Markers that moved into or out of the viewport or a cluster are added or removed once
+        // they arrive. Until then they keep their place on the map.
+        _annotationMovesPending = true;
+        if (!animatingPoints) { refreshMovedAnnotations(); }
+    }
+
+    private void refreshMovedAnnotations() {
+        if (!_annotationMovesPending) { return; }
+        // Otherwise the next move to finish refreshes again
+        if (_markerAnimator.getActiveCount() == 0) { _annotationMovesPending = false; }
+        if (_annotationsClusteringEnabled) {
+            _clusterer.invalidate();
+        } else if (_annotationsCullingEnabled) {
+            refreshVisibleAnnotations();
+        }
+    }
+
+    /**
+     * Brings the annotations on the map in line with the viewport: annotations that left it are
+     * removed and annotations that entered it are added. Without culling, everything is added.
+     * With clustering, markers are replaced by the clusters they belong to at the current zoom.
+     */
+    private void refreshVisibleAnnotations() {
+        if (_map == null) { return; }
+
+        Collection<String> visible;
+        if (_annotationsCullingEnabled || _annotationsClusteringEnabled) { updateCullingBounds(); }
+        if (_annotationsCullingEnabled) {
+            visible = new HashSet<>();
+            _annotationIndex.query(_cullingBounds[0], _cullingBounds[1], _cullingBounds[2], _cullingBounds[3], visible);
         } else {
-            Annotation annotation = options.addToMap(_map);
-            _annotations.put(name, annotation);
-            _annotationIdsToName.put(annotation.getId(), name);
+            visible = _annotationOptions.keySet();
+        }
+
+        if (_annotationsClusteringEnabled) {
+            Set<String> unclustered = new HashSet<>();
+            for (String name : visible) {
+                if (!(_annotationOptions.get(name) instanceof RNMGLMarkerOptions)) { unclustered.add(name); }
+            }
+
+            List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+            _visibleClusterLeaves.clear();
+            _clusterer.query(_cullingBounds[0], _cullingBounds[1], _cullingBounds[2], _cullingBounds[3],
+                    _map.getCameraPosition().zoom, _visibleClusterLeaves, clusters);
+            // The index may predate the latest removals, a rebuild is already pending then
+            _visibleClusterLeaves.retainAll(_annotationOptions.keySet());
+            unclustered.addAll(_visibleClusterLeaves);
+            visible = unclustered;
+
+            refreshClusterMarkers(clusters);
+        }
+
+        List<String> hidden = new ArrayList<>();
+        for (Map.Entry<String, Annotation> entry : _annotations.entrySet()) {
+            if (visible.contains(entry.getKey())) { continue; }
+            // Markers on their way stay until they arrive, refreshMovedAnnotations culls them then
+            Annotation annotation = entry.getValue();
+            if (annotation instanceof Marker && _markerAnimator.isMoving((Marker) annotation)) { continue; }
+            hidden.add(entry.getKey());
+        }
+        List<Annotation> removed = new ArrayList<>(hidden.size());
+        for (String name : hidden) {
+            removed.add(_removeAnnotation(name, true));
+        }
+
+        RNMGLAnnotationBatch batch = new RNMGLAnnotationBatch(_map.getCameraPosition().zoom);
+        for (String name : visible) {
+            if (!_annotations.containsKey(name)) {
+                batch.add(name, _annotationOptions.get(name));
+            }
+        }
+        addAnnotationBatch(batch);
+
+        if (!removed.isEmpty()) { _map.removeAnnotations(removed); }
+    }
+
+    private void updateZoomDependentAnnotations() {
+        if (_map == null) { return; }
+        int zoomLevel = (int) Math.floor(_map.getCameraPosition().zoom);
+        if (zoomLevel == _simplificationZoomLevel) { return; }
+        _simplificationZoomLevel = zoomLevel;
+
+        long start = System.nanoTime();
+        int updated = 0;
+        for (Map.Entry<String, Annotation> entry : _annotations.entrySet()) {
+            RNMGLAnnotationOptions options = _annotationOptions.get(entry.getKey());
+            if (options != null && options.isZoomDependent()) {
+                options.updateAnnotation(_map, entry.getValue());
+                updated++;
+            }
+        }
+        if (updated == 0) { return; }
+        _simplifiedAnnotationUpdates += updated;
+        _lastSimplificationNanos = System.nanoTime() - start;
+    }
+
+    private void updateCullingBounds() {
+        LatLngBounds bounds = getBounds();
+        double latMargin = (bounds.getLatNorth() - bounds.getLatSouth()) * CULLING_MARGIN;
+        double lonMargin = (bounds.getLonEast() - bounds.getLonWest()) * CULLING_MARGIN;
+        _cullingBounds = new double[] {
+                Math.max(-90, bounds.getLatSouth() - latMargin),
+                bounds.getLonWest() - lonMargin,
+                Math.min(90, bounds.getLatNorth() + latMargin),
+                bounds.getLonEast() + lonMargin
+        };
+    }
+
+    private boolean shouldBeOnMap(String name, RNMGLAnnotationOptions options) {
+        if (_annotationsClusteringEnabled && options instanceof RNMGLMarkerOptions) {
+            return _visibleClusterLeaves.contains(name);
+        }
+        if (!_annotationsCullingEnabled) { return true; }
+        return RNMGLAnnotationIndex.intersects(options.getBounds(),
+                _cullingBounds[0], _cullingBounds[1], _cullingBounds[2], _cullingBounds[3]);
+    }
+
+    private void addAnnotationBatch(RNMGLAnnotationBatch batch) {
+        batch.addToMap(_map, new RNMGLAnnotationBatch.Callback() {
+            @Override
+            public void annotationAdded(String name, RNMGLAnnotationOptions options, Annotation annotation) {
+                _annotations.put(name, annotation);
+                _annotationIdsToName.put(annotation.getId(), name);
+                if (options instanceof RNMGLMarkerOptions) {
+                    loadPendingIcon(name, (RNMGLMarkerOptions) options, (Marker) annotation);
+                }
+            }
+        });
+    }
+
+    private static String clusterKey(RNMGLSupercluster.Node cluster) {
+        return Math.round(cluster.getLatitude() * 1e6) + ":" + Math.round(cluster.getLongitude() * 1e6)
+                + ":" + cluster.getPointCount();
+    }
+
+    /**
+     * Brings the cluster markers in line with the given clusters. Clusters that are still on the map
+     * keep their marker. Markers of clusters that went away are moved to new clusters where
+     * possible instead of being removed and added again, so the bubbles don't flicker.
+     */
+    private void refreshClusterMarkers(List<RNMGLSupercluster.Node> clusters) {
+        Map<String, Marker> previous = _clusterMarkers;
+        _clusterMarkers = new HashMap<>();
+        _clusterIdsByMarkerId.clear();
+
+        // Clusters with the same key would be drawn on top of each other, one marker is enough
+        Map<String, RNMGLSupercluster.Node> current = new LinkedHashMap<>();
+        for (RNMGLSupercluster.Node cluster : clusters) {
+            String key = clusterKey(cluster);
+            if (!current.containsKey(key)) { current.put(key, cluster); }
+        }
+
+        List<RNMGLSupercluster.Node> unmatched = new ArrayList<>();
+        for (Map.Entry<String, RNMGLSupercluster.Node> entry : current.entrySet()) {
+            Marker marker = previous.remove(entry.getKey());
+            if (marker == null) {
+                unmatched.add(entry.getValue());
+                continue;
+            }
+            _clusterMarkers.put(entry.getKey(), marker);
+            _clusterIdsByMarkerId.put(marker.getId(), entry.getValue().getClusterId());
         }
 
-        if (removed != null) { _map.removeAnnotation(removed); }
+        RNMGLIconLoader loader = RNMGLIconLoader.getInstance(getContext());
+        List<Marker> spare = new ArrayList<>(previous.values());
+        List<RNMGLSupercluster.Node> addedClusters = new ArrayList<>();
+        List<MarkerOptions> added = new ArrayList<>();
+        for (RNMGLSupercluster.Node cluster : unmatched) {
+            LatLng position = new LatLng(cluster.getLatitude(), cluster.getLongitude());
+            Icon icon = loader.getClusterIcon(cluster.getPointCount());
+            if (spare.isEmpty()) {
+                addedClusters.add(cluster);
+                added.add(new MarkerOptions().position(position).icon(icon));
+                continue;
+            }
+
+            // Reuse the closest marker that lost its cluster, usually the one this cluster split from
+            // or merged into
+            int closest = 0;
+            double closestDistance = Double.MAX_VALUE;
+            for (int i = 0; i < spare.size(); i++) {
+                LatLng other = spare.get(i).getPosition();
+                double dLat = other.getLatitude() - position.getLatitude();
+                double dLng = other.getLongitude() - position.getLongitude();
+                double distance = dLat * dLat + dLng * dLng;
+                if (distance < closestDistance) {
+                    closest = i;
+                    closestDistance = distance;
+                }
+            }
+            Marker marker = spare.remove(closest);
+            marker.setPosition(position);
+            if (marker.getIcon() != icon) { marker.setIcon(icon); }
+            _reusedClusterMarkers++;
+            _clusterMarkers.put(clusterKey(cluster), marker);
+            _clusterIdsByMarkerId.put(marker.getId(), cluster.getClusterId());
+        }
+
+        if (!added.isEmpty()) {
+            List<Marker> markers = _map.addMarkers(added);
+            for (int i = 0; i < markers.size(); i++) {
+                _clusterMarkers.put(clusterKey(addedClusters.get(i)), markers.get(i));
+                _clusterIdsByMarkerId.put(markers.get(i).getId(), addedClusters.get(i).getClusterId());
+            }
+        }
+
+        if (!spare.isEmpty()) { _map.removeAnnotations(new ArrayList<Annotation>(spare)); }
+    }
+
+    private void removeClusterMarkers() {
+        if (_map != null && !_clusterMarkers.isEmpty()) {
+            _map.removeAnnotations(new ArrayList<Annotation>(_clusterMarkers.values()));
+        }
+        _clusterMarkers.clear();
+        _clusterIdsByMarkerId.clear();
+    }
+
+    private void loadPendingIcon(final String name, RNMGLMarkerOptions options, final Marker marker) {
+        // An update replaces the icon an earlier load is waiting for
+        final String key = options.getPendingIconKey();
+        if (key == null) {
+            _pendingIconKeys.remove(name);
+            return;
+        }
+        _pendingIconKeys.put(name, key);
+        options.loadPendingIcon(getContext(), new RNMGLIconLoader.Listener() {
+            @Override
+            public void onIconLoaded(Icon icon) {
+                // Swap the placeholder in place, unless the marker was replaced, removed or given
+                // another icon meanwhile
+                if (!isPendingIcon(name, marker, key)) { return; }
+                _pendingIconKeys.remove(name);
+                marker.setIcon(icon);
+            }
+
+            @Override
+            public void onIconFailed() {
+                // Don't leave the transparent placeholder on the map
+                if (!isPendingIcon(name, marker, key)) { return; }
+                _pendingIconKeys.remove(name);
+                marker.setIcon(RNMGLIconLoader.getInstance(getContext()).getDefaultIcon());
+            }
+        });
+    }
+
+    private boolean isPendingIcon(String name, Marker marker, String key) {
+        return _map != null && _annotations.get(name) == marker && key.equals(_pendingIconKeys.get(name));
     }
 
     public void selectAnnotation(String name, boolean animated) {
@@ -797,10 +1593,58 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
         return _map.queryRenderedFeatures(rect, layerIds);
     }
 
+    // Debug
+
+    public void putDebugStats(WritableMap stats) {
+        stats.putInt("inPlaceAnnotationUpdates", _inPlaceAnnotationUpdates);
+        stats.putInt("replacedAnnotationUpdates", _replacedAnnotationUpdates);
+        stats.putInt("annotationCount", _annotationOptions.size());
+        stats.putInt("annotationsOnMapCount", _annotations.size());
+        stats.putInt("simplifiedAnnotationUpdates", _simplifiedAnnotationUpdates);
+        stats.putDouble("lastSimplificationUpdateMs", _lastSimplificationNanos / 1e6);
+        stats.putInt("annotationViewMutations", _annotationViewMutations);
+        stats.putInt("annotationViewReconciliations", _annotationViewReconciliations);
+        stats.putInt("relayoutRequests", _relayoutScheduler.getRequestCount());
+        stats.putInt("relayouts", _relayoutScheduler.getRelayoutCount());
+        stats.putInt("collapsedRelayoutRequests", _relayoutScheduler.getCollapsedCount());
+        if (_markerViewAdapter != null) {
+            stats.putInt("markerViewPoolHits", _markerViewAdapter.getPoolHits());
+            stats.putInt("markerViewPoolMisses", _markerViewAdapter.getPoolMisses());
+        }
+        stats.putInt("rasterizedAnnotationViews", _rasterizedAnnotationMarkers.size());
+        stats.putInt("rasterizedAnnotationRenders", _rasterizedAnnotationRenders);
+        stats.putInt("markerPositionUpdates", _markerAnimator.getPositionUpdateCount());
+        stats.putInt("markerAnimationFrames", _markerAnimator.getFrameCount());
+        stats.putInt("animatedAnnotationMoves", _animatedAnnotationMoves);
+        stats.putInt("activeMarkerAnimations", _markerAnimator.getActiveCount());
+        stats.putInt("regionChangeEventsEmitted", _regionChangeEventsEmitted);
+        stats.putInt("regionChangeEventsSuppressed", _regionChangeEventsSuppressed);
+        stats.putInt("cameraChangeSamples", _cameraChangeSamples);
+        stats.putInt("cameraChangeEventsEmitted", _cameraChangeEventsEmitted);
+        stats.putInt("clustersOnMapCount", _clusterMarkers.size());
+        stats.putInt("reusedClusterMarkers", _reusedClusterMarkers);
+        stats.putDouble("lastClusterBuildMs", _clusterer.getLastBuildNanos() / 1e6);
+    }
+
     // Custom Marker View Adapter - Adapts a MarkerView to display an custom react native view.
 
     private class RNMGLCustomMarkerViewAdapter extends MapboxMap.MarkerViewAdapter<RNMGLCustomMarkerView> {
 
+        // Wrapper layouts are recycled through the SDK's view reuse pool and handed back as
+        // convertView; these count how often a bind found one.
+        private int _poolHits = 0;
+        private int _poolMisses = 0;
+
+        // Shared by all react views, the marker is looked up from the view's annotation id
+        private final OnInterceptTouchEventListener _touchListener = new OnInterceptTouchEventListener() {
+            @Override
+            public boolean onInterceptTouchEvent(ViewGroup v, MotionEvent event) {
+                MarkerView marker = _customAnnodationIds.get(((RNMGLAnnotationView) v).getAnnotationId());
+                if (marker != null) { onMarkerClick(marker); }
+                return true;
+            }
+        };
+
         RNMGLCustomMarkerViewAdapter(@NonNull Context context) {
             super(context);
         }
@@ -815,30 +1659,54 @@ public class ReactNativeMapboxGLView extends RelativeLayout implements
             }
             int width = (int)reactView.getLayoutWidth();
             int height = (int)reactView.getLayoutHeight();
-            ViewGroup.LayoutParams frameLayoutMeasurements = new FrameLayout.LayoutParams(width, height);
-            ViewGroup.LayoutParams viewGroupMeasurements = new ViewGroup.LayoutParams(width, height);
 
             FrameLayout layout;
-            if (convertView == null) {
-                layout = new FrameLayout(getContext());
-            } else {
+            if (convertView instanceof FrameLayout) {
+                _poolHits++;
                 layout = (FrameLayout) convertView;
                 layout.removeAllViews();
+            } else {
+                _poolMisses++;
+                layout = new FrameLayout(getContext());
             }
-            reactView.setLayoutParams(viewGroupMeasurements);
-            reactView.setOnInterceptTouchEventListener(new OnInterceptTouchEventListener() {
-                @Override
-                public boolean onInterceptTouchEvent(ViewGroup v, MotionEvent event) {
-                    onMarkerClick(marker);
-                    return true;
-                }
-            });
-            layout.setLayoutParams(frameLayoutMeasurements);
+            setLayoutSize(reactView, width, height);
+            reactView.setOnInterceptTouchEventListener(_touchListener);
+            setLayoutSize(layout, width, height);
             layout.addView(reactView);
 
             relayout();
 
             return layout;
         }
+
+        @Override
+        public boolean prepareViewForReuse(@NonNull MarkerView marker, @NonNull View convertView) {
+            // Let go of the react view before the wrapper goes back to the pool
+            if (convertView instanceof ViewGroup) {
+                ((ViewGroup) convertView).removeAllViews();
+            }
+            return super.prepareViewForReuse(marker, convertView);
+        }
+
+        // Updates the layout params in place instead of allocating new ones on every bind
+        private void setLayoutSize(View view, int width, int height) {
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params instanceof FrameLayout.LayoutParams) {
+                if (params.width == width && params.height == height) { return; }
+                params.width = width;
+                params.height = height;
+                view.setLayoutParams(params);
+            } else {
+                view.setLayoutParams(new FrameLayout.LayoutParams(width, height));
+            }
+        }
+
+        int getPoolHits() {
+            return _poolHits;
+        }
+
+        int getPoolMisses() {
+            return _poolMisses;
+        }
     }
 }
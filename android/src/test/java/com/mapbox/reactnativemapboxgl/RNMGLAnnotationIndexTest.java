@@ -0,0 +1,85 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RNMGLAnnotationIndexTest {
+
+    private static Set<String> query(RNMGLAnnotationIndex index, double south, double west, double north, double east) {
+        Set<String> results = new HashSet<>();
+        index.query(south, west, north, east, results);
+        return results;
+    }
+
+    @Test
+    public void findsEntriesIntersectingTheBox() {
+        RNMGLAnnotationIndex index = new RNMGLAnnotationIndex();
+        index.put("a", 10, 10, 10, 10);
+        index.put("b", -10, -10, -10, -10);
+        index.put("c", 5, 5, 15, 15);
+
+        Set<String> results = query(index, 0, 0, 12, 12);
+        assertEquals(2, results.size());
+        assertTrue(results.contains("a"));
+        assertTrue(results.contains("c"));
+    }
+
+    @Test
+    public void removingFromACrowdedNodeKeepsTheOthers() {
+        // Boxes across the equator and the prime meridian stay in the root, whatever the splits
+        RNMGLAnnotationIndex index = new RNMGLAnnotationIndex();
+        for (int i = 0; i < 100; i++) {
+            double size = 1 + i * 0.01;
+            index.put("wide" + i, -size, -size, size, size);
+        }
+        for (int i = 0; i < 100; i++) {
+            index.put("point" + i, 20 + i * 0.1, 20 + i * 0.1, 20 + i * 0.1, 20 + i * 0.1);
+        }
+
+        for (int i = 0; i < 100; i += 3) {
+            assertTrue(index.remove("wide" + i));
+            assertTrue(index.remove("point" + i));
+        }
+        assertFalse(index.remove("wide0"));
+
+        Set<String> results = query(index, -90, -180, 90, 180);
+        assertEquals(index.size(), results.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, results.contains("wide" + i));
+            assertEquals(i % 3 != 0, results.contains("point" + i));
+        }
+    }
+
+    @Test
+    public void movingAnEntryReplacesItsOldBox() {
+        RNMGLAnnotationIndex index = new RNMGLAnnotationIndex();
+        for (int i = 0; i < 50; i++) {
+            index.put("id" + i, i, i, i, i);
+        }
+        index.put("id10", -40, -40, -40, -40);
+
+        assertFalse(query(index, 9, 9, 11, 11).contains("id10"));
+        assertTrue(query(index, -41, -41, -39, -39).contains("id10"));
+        assertEquals(50, index.size());
+        assertEquals(50, query(index, -90, -180, 90, 180).size());
+    }
+
+    @Test
+    public void queriesAcrossTheAntimeridian() {
+        RNMGLAnnotationIndex index = new RNMGLAnnotationIndex();
+        index.put("east", 0, 175, 0, 175);
+        index.put("west", 0, -175, 0, -175);
+        index.put("middle", 0, 0, 0, 0);
+
+        Set<String> results = query(index, -1, 170, 1, 190);
+        assertEquals(2, results.size());
+        assertTrue(results.contains("east"));
+        assertTrue(results.contains("west"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RNMGLAnnotationViewChangesTest {
+
+    @Test
+    public void addAndRemoveCancelOut() {
+        RNMGLAnnotationViewChanges changes = new RNMGLAnnotationViewChanges();
+        RNMGLAnnotationView mounted = new RNMGLAnnotationView(null);
+        RNMGLAnnotationView moved = new RNMGLAnnotationView(null);
+
+        changes.added(mounted);
+        changes.removed(mounted);
+        changes.removed(moved);
+        changes.added(moved);
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void keepsTheNetChangesInOrder() {
+        RNMGLAnnotationViewChanges changes = new RNMGLAnnotationViewChanges();
+        RNMGLAnnotationView a = new RNMGLAnnotationView(null);
+        RNMGLAnnotationView b = new RNMGLAnnotationView(null);
+        RNMGLAnnotationView c = new RNMGLAnnotationView(null);
+
+        changes.added(b);
+        changes.removed(c);
+        changes.added(a);
+
+        assertEquals(Arrays.asList(b, a), new ArrayList<>(changes.getAdded()));
+        assertEquals(Arrays.asList(c), new ArrayList<>(changes.getRemoved()));
+
+        changes.clear();
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void replacedViewsAreRemovedAndAddedAgain() {
+        RNMGLAnnotationViewChanges changes = new RNMGLAnnotationViewChanges();
+        RNMGLAnnotationView view = new RNMGLAnnotationView(null);
+
+        changes.replaced(view);
+
+        assertTrue(changes.getRemoved().contains(view));
+        assertTrue(changes.getAdded().contains(view));
+    }
+}
@@ -0,0 +1,59 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.View;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class RNMGLAnnotationViewTest {
+
+    @Test
+    public void unkeyedViewsHaveTheirOwnContent() {
+        RNMGLAnnotationView first = new RNMGLAnnotationView(null);
+        RNMGLAnnotationView second = new RNMGLAnnotationView(null);
+
+        assertNotEquals(first.getRasterContentKey(), second.getRasterContentKey());
+
+        first.setRasterizeKey("pin");
+        second.setRasterizeKey("pin");
+        assertEquals(first.getRasterContentKey(), second.getRasterContentKey());
+    }
+
+    @Test
+    public void subtreeChangesRedrawUnkeyedViews() {
+        RNMGLAnnotationView view = new RNMGLAnnotationView(null);
+        view.setRasterize(true);
+        RNMGLAnnotationView.PropertyListener listener = mock(RNMGLAnnotationView.PropertyListener.class);
+        view.addPropertyListener(listener);
+
+        String key = view.getRasterContentKey();
+        View child = mock(View.class);
+        view.onViewAdded(child);
+        String added = view.getRasterContentKey();
+        view.onViewRemoved(child);
+
+        assertNotEquals(key, added);
+        assertNotEquals(added, view.getRasterContentKey());
+        verify(listener, times(2)).propertiesUpdated(view);
+    }
+
+    @Test
+    public void unchangedRasterizeKeyIsIgnored() {
+        RNMGLAnnotationView view = new RNMGLAnnotationView(null);
+        view.setRasterizeKey("pin");
+        RNMGLAnnotationView.PropertyListener listener = mock(RNMGLAnnotationView.PropertyListener.class);
+        view.addPropertyListener(listener);
+
+        view.setRasterizeKey("pin");
+        view.onViewAdded(mock(View.class));
+
+        assertEquals("rasterize:pin", view.getRasterContentKey());
+        verifyZeroInteractions(listener);
+    }
+}
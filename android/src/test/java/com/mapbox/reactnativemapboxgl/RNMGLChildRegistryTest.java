@@ -0,0 +1,70 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.View;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RNMGLChildRegistryTest {
+
+    @Test
+    public void nativeIndexSkipsAnnotationViews() {
+        RNMGLChildRegistry registry = new RNMGLChildRegistry();
+        View first = new View(null);
+        RNMGLAnnotationView annotation = new RNMGLAnnotationView(null);
+        View second = new View(null);
+        registry.add(0, first);
+        registry.add(1, annotation);
+        registry.add(2, second);
+
+        assertEquals(0, registry.nativeIndex(0));
+        assertEquals(1, registry.nativeIndex(2));
+        assertEquals(2, registry.nativeIndex(3));
+        assertEquals(1, registry.getAnnotationViews().size());
+        assertTrue(registry.getAnnotationViews().contains(annotation));
+    }
+
+    @Test
+    public void matchesAListUnderRandomInsertionsAndRemovals() {
+        Random random = new Random(7);
+        RNMGLChildRegistry registry = new RNMGLChildRegistry();
+        List<View> expected = new ArrayList<>();
+
+        for (int step = 0; step < 2000; step++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                int index = random.nextInt(expected.size() + 1);
+                View view = random.nextBoolean() ? new View(null) : new RNMGLAnnotationView(null);
+                registry.add(index, view);
+                expected.add(index, view);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.remove(index), registry.remove(index));
+            }
+
+            assertEquals(expected.size(), registry.size());
+            int probe = random.nextInt(expected.size() + 1);
+            assertEquals(nativeIndex(expected, probe), registry.nativeIndex(probe));
+            if (probe < expected.size()) { assertSame(expected.get(probe), registry.get(probe)); }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsOutOfRangeIndices() {
+        new RNMGLChildRegistry().add(1, new View(null));
+    }
+
+    private static int nativeIndex(List<View> children, int index) {
+        int nativeIndex = 0;
+        for (int i = 0; i < index; i++) {
+            if (!(children.get(i) instanceof RNMGLAnnotationView)) { nativeIndex++; }
+        }
+        return nativeIndex;
+    }
+}
@@ -0,0 +1,215 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.content.Context;
+
+import com.mapbox.mapboxsdk.annotations.Icon;
+import com.mapbox.mapboxsdk.annotations.IconFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the loader against a local HTTP server. The Android framework only returns defaults on
+ * the JVM, so images never decode here: these tests cover fetching, de-duplication and failures.
+ */
+public class RNMGLIconLoaderTest {
+
+    private static final byte[] IMAGE = { 1, 2, 3, 4, 5 };
+
+    // Runs listeners on the worker that finished the load
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    // Counts the calls of a listener
+    private static class Result implements RNMGLIconLoader.Listener {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger loaded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        @Override
+        public void onIconLoaded(Icon icon) {
+            loaded.incrementAndGet();
+            done.countDown();
+        }
+
+        @Override
+        public void onIconFailed() {
+            failed.incrementAndGet();
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("Listener was not called", done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private AtomicInteger requests;
+    private ExecutorService workers;
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                boolean found = exchange.getRequestURI().getPath().equals("/marker.png");
+                exchange.sendResponseHeaders(found ? 200 : 404, found ? IMAGE.length : -1);
+                OutputStream body = exchange.getResponseBody();
+                if (found) { body.write(IMAGE); }
+                body.close();
+            }
+        });
+        server.start();
+        workers = Executors.newFixedThreadPool(2);
+        cacheDir = new File(folder.getRoot(), "icons");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private RNMGLIconLoader loader(RNMGLIconLoader.Fetcher fetcher) {
+        return new RNMGLIconLoader(mock(Context.class), mock(IconFactory.class), cacheDir, workers, DIRECT, fetcher);
+    }
+
+    @Test
+    public void httpFetcherWritesTheResponseBody() throws IOException {
+        File destination = folder.newFile();
+        RNMGLIconLoader.HTTP_FETCHER.fetch(url("/marker.png"), destination);
+        assertArrayEquals(IMAGE, Files.readAllBytes(destination.toPath()));
+    }
+
+    @Test
+    public void httpFetcherRejectsErrorStatuses() throws IOException {
+        try {
+            RNMGLIconLoader.HTTP_FETCHER.fetch(url("/missing.png"), folder.newFile());
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void missingImageIsReportedAndNotCached() throws InterruptedException {
+        Result result = new Result();
+        loader(RNMGLIconLoader.HTTP_FETCHER).load(url("/missing.png"), 10, 10, result);
+        result.await();
+
+        assertEquals(1, result.failed.get());
+        assertEquals(0, result.loaded.get());
+        assertEquals(1, requests.get());
+        String[] cached = cacheDir.list();
+        assertEquals("Nothing should be left in the disk cache", 0, cached == null ? 0 : cached.length);
+    }
+
+    @Test
+    public void failedLoadIsRetriedByTheNextRequest() throws InterruptedException {
+        RNMGLIconLoader loader = loader(RNMGLIconLoader.HTTP_FETCHER);
+        for (int i = 1; i <= 2; i++) {
+            Result result = new Result();
+            loader.load(url("/missing.png"), 10, 10, result);
+            result.await();
+            assertEquals(1, result.failed.get());
+            assertEquals(i, requests.get());
+        }
+    }
+
+    @Test
+    public void unexpectedExceptionsStillReachTheListeners() throws InterruptedException {
+        final AtomicInteger fetches = new AtomicInteger();
+        RNMGLIconLoader loader = loader(new RNMGLIconLoader.Fetcher() {
+            @Override
+            public void fetch(String url, File destination) {
+                fetches.incrementAndGet();
+                throw new IllegalArgumentException("Bad URL " + url);
+            }
+        });
+
+        Result first = new Result();
+        loader.load("bad", 10, 10, first);
+        first.await();
+        assertEquals(1, first.failed.get());
+
+        // The failed load must not be left in flight
+        Result second = new Result();
+        loader.load("bad", 10, 10, second);
+        second.await();
+        assertEquals(1, second.failed.get());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void concurrentLoadsShareOneFetch() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger fetches = new AtomicInteger();
+        RNMGLIconLoader loader = loader(new RNMGLIconLoader.Fetcher() {
+            @Override
+            public void fetch(String url, File destination) throws IOException {
+                fetches.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                RNMGLIconLoader.HTTP_FETCHER.fetch(url, destination);
+            }
+        });
+
+        Result[] results = { new Result(), new Result(), new Result() };
+        for (Result result : results) {
+            loader.load(url("/marker.png"), 10, 10, result);
+        }
+        release.countDown();
+
+        for (Result result : results) {
+            result.await();
+            // Decoding needs the real framework, so even the downloaded image fails here
+            assertEquals(1, result.failed.get() + result.loaded.get());
+        }
+        assertEquals(1, fetches.get());
+        assertEquals(1, requests.get());
+        String[] cached = cacheDir.list();
+        assertEquals("Nothing should be left in the disk cache", 0, cached == null ? 0 : cached.length);
+    }
+}
@@ -0,0 +1,87 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RNMGLKDBushTest {
+
+    private static final int COUNT = 2000;
+
+    private double[] xs;
+    private double[] ys;
+    private RNMGLKDBush index;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        xs = new double[COUNT];
+        ys = new double[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            xs[i] = random.nextDouble() * 100;
+            ys[i] = random.nextDouble() * 100;
+        }
+        index = new RNMGLKDBush(xs, ys, COUNT, 10);
+    }
+
+    @Test
+    public void rangeReturnsThePointsInsideTheBox() {
+        RNMGLKDBush.IntList result = new RNMGLKDBush.IntList();
+        index.range(20, 30, 50, 70, result);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            if (xs[i] >= 20 && xs[i] <= 50 && ys[i] >= 30 && ys[i] <= 70) { expected.add(i); }
+        }
+        assertEquals(expected, sorted(result));
+    }
+
+    @Test
+    public void withinReturnsThePointsInsideTheRadius() {
+        RNMGLKDBush.IntList result = new RNMGLKDBush.IntList();
+        index.within(50, 50, 20, result);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            double dx = xs[i] - 50;
+            double dy = ys[i] - 50;
+            if (dx * dx + dy * dy <= 20 * 20) { expected.add(i); }
+        }
+        assertEquals(expected, sorted(result));
+    }
+
+    @Test
+    public void emptyBoxReturnsNothing() {
+        RNMGLKDBush.IntList result = new RNMGLKDBush.IntList();
+        index.range(200, 200, 300, 300, result);
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    public void intListGrowsPastItsInitialCapacity() {
+        RNMGLKDBush.IntList list = new RNMGLKDBush.IntList();
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        assertEquals(100, list.size());
+        assertEquals(99, list.removeLast());
+        assertEquals(42, list.get(42));
+        list.clear();
+        assertEquals(0, list.size());
+    }
+
+    private static List<Integer> sorted(RNMGLKDBush.IntList list) {
+        List<Integer> result = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            result.add(list.get(i));
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RNMGLOfflineDownloadSchedulerTest {
+
+    // Records when it is started and stopped, in a log shared by all downloads
+    private static class FakeDownload implements RNMGLOfflineDownloadScheduler.Download {
+        final String name;
+        final List<String> log;
+
+        FakeDownload(String name, List<String> log) {
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override
+        public void setActive(boolean active) {
+            log.add((active ? "start " : "stop ") + name);
+        }
+    }
+
+    private List<String> log;
+    private RNMGLOfflineDownloadScheduler scheduler;
+    private FakeDownload a;
+    private FakeDownload b;
+    private FakeDownload c;
+    private FakeDownload d;
+
+    @Before
+    public void setUp() {
+        log = new ArrayList<>();
+        scheduler = new RNMGLOfflineDownloadScheduler();
+        scheduler.setMaxActive(2);
+        a = new FakeDownload("a", log);
+        b = new FakeDownload("b", log);
+        c = new FakeDownload("c", log);
+        d = new FakeDownload("d", log);
+    }
+
+    @Test
+    public void startsUpToMaxActiveAndQueuesTheRest() {
+        scheduler.request(a, 0);
+        scheduler.request(b, 0);
+        scheduler.request(c, 0);
+
+        assertEquals(Arrays.asList("start a", "start b"), log);
+        assertTrue(scheduler.isActive(a));
+        assertTrue(scheduler.isQueued(c));
+        assertEquals(2, scheduler.getActiveCount());
+        assertEquals(1, scheduler.getQueuedCount());
+    }
+
+    @Test
+    public void completionPromotesTheNextQueuedDownload() {
+        scheduler.request(a, 0);
+        scheduler.request(b, 0);
+        scheduler.request(c, 0);
+        scheduler.request(d, 0);
+        log.clear();
+
+        scheduler.onComplete(a);
+
+        assertEquals(Arrays.asList("stop a", "start c"), log);
+        assertFalse(scheduler.isActive(a));
+        assertFalse(scheduler.isQueued(a));
+        assertTrue(scheduler.isQueued(d));
+    }
+
+    @Test
+    public void errorRequeuesOnlyWhenOthersAreWaiting() {
+        scheduler.request(a, 0);
+        scheduler.request(b, 0);
+        log.clear();
+
+        // Nothing is waiting, so the failed download keeps its slot and retries
+        scheduler.onError(a);
+        assertTrue(log.isEmpty());
+        assertTrue(scheduler.isActive(a));
+
+        scheduler.request(c, 0);
+        scheduler.onError(a);
+        assertEquals(Arrays.asList("stop a", "start c"), log);
+        assertTrue(scheduler.isQueued(a));
+
+        // Behind the others, it gets the next free slot
+        log.clear();
+        scheduler.onComplete(b);
+        assertEquals(Arrays.asList("stop b", "start a"), log);
+    }
+
+    @Test
+    public void switchingToPriorityOrderReordersTheQueue() {
+        scheduler.setMaxActive(1);
+        scheduler.request(a, 0);
+        scheduler.request(b, 1);
+        scheduler.request(c, 5);
+        scheduler.request(d, 3);
+        log.clear();
+
+        scheduler.setOrder(RNMGLOfflineDownloadScheduler.ORDER_PRIORITY);
+        scheduler.onComplete(a);
+        scheduler.onComplete(c);
+        scheduler.onComplete(d);
+
+        assertEquals(Arrays.asList("stop a", "start c", "stop c", "start d", "stop d", "start b"), log);
+
+        // And back to the order of the requests
+        scheduler.setOrder(RNMGLOfflineDownloadScheduler.ORDER_FIFO);
+        scheduler.request(c, 9);
+        scheduler.request(a, 0);
+        log.clear();
+        scheduler.onComplete(b);
+        assertEquals(Arrays.asList("stop b", "start c"), log);
+    }
+
+    @Test
+    public void priorityChangeWhileQueuedTakesEffect() {
+        scheduler.setMaxActive(1);
+        scheduler.setOrder(RNMGLOfflineDownloadScheduler.ORDER_PRIORITY);
+        scheduler.request(a, 0);
+        scheduler.request(b, 1);
+        scheduler.request(c, 2);
+        log.clear();
+
+        scheduler.setPriority(b, 10);
+        scheduler.onComplete(a);
+
+        assertEquals(Arrays.asList("stop a", "start b"), log);
+    }
+
+    @Test
+    public void suspendingAnActiveDownloadFreesItsSlot() {
+        scheduler.request(a, 0);
+        scheduler.request(b, 0);
+        scheduler.request(c, 0);
+        log.clear();
+
+        scheduler.suspend(b);
+        assertEquals(Arrays.asList("stop b", "start c"), log);
+
+        // Requesting again queues it like a new download
+        scheduler.request(b, 0);
+        assertTrue(scheduler.isQueued(b));
+    }
+
+    @Test
+    public void removedDownloadsAreNotTouched() {
+        scheduler.request(a, 0);
+        scheduler.request(b, 0);
+        scheduler.request(c, 0);
+        log.clear();
+
+        scheduler.remove(a);
+        assertEquals(Arrays.asList("start c"), log);
+        assertFalse(scheduler.isActive(a));
+    }
+
+    @Test
+    public void raisingTheLimitStartsQueuedDownloads() {
+        scheduler.request(a, 0);
+        scheduler.request(b, 0);
+        scheduler.request(c, 0);
+        log.clear();
+
+        scheduler.setMaxActive(0);
+        assertEquals(Arrays.asList("start c"), log);
+        assertEquals(3, scheduler.getActiveCount());
+    }
+}
@@ -0,0 +1,65 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class RNMGLOfflineMetadataTest {
+
+    @Test
+    public void roundTrips() throws IOException {
+        RNMGLOfflineMetadata metadata = new RNMGLOfflineMetadata("Zürich", "{\"v\":\"東京\"}");
+        RNMGLOfflineMetadata decoded = RNMGLOfflineMetadata.decode(metadata.encode());
+        assertEquals("Zürich", decoded.getName());
+        assertEquals("{\"v\":\"東京\"}", decoded.getMetadata());
+    }
+
+    @Test
+    public void roundTripsNulls() throws IOException {
+        RNMGLOfflineMetadata decoded = RNMGLOfflineMetadata.decode(RNMGLOfflineMetadata.EMPTY.encode());
+        assertNull(decoded.getName());
+        assertNull(decoded.getMetadata());
+    }
+
+    @Test
+    public void decodesTheLegacyFormat() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bytes);
+        oos.writeObject("pack");
+        oos.writeObject("{}");
+        oos.close();
+
+        RNMGLOfflineMetadata decoded = RNMGLOfflineMetadata.decode(bytes.toByteArray());
+        assertEquals("pack", decoded.getName());
+        assertEquals("{}", decoded.getMetadata());
+    }
+
+    @Test
+    public void rejectsTruncatedMetadata() {
+        byte[] encoded = new RNMGLOfflineMetadata("pack", "{}").encode();
+        assertDecodeFails(Arrays.copyOf(encoded, encoded.length - 1));
+    }
+
+    @Test
+    public void rejectsUnknownVersions() {
+        byte[] encoded = new RNMGLOfflineMetadata("pack", "{}").encode();
+        encoded[4] = 99;
+        assertDecodeFails(encoded);
+    }
+
+    private static void assertDecodeFails(byte[] bytes) {
+        try {
+            RNMGLOfflineMetadata.decode(bytes);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mapbox.reactnativemapboxgl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RNMGLSuperclusterTest {
+
+    // Two groups of three points, one around Paris and one around New York
+    private static final double[] LATITUDES = { 48.85, 48.86, 48.87, 40.71, 40.72, 40.73 };
+    private static final double[] LONGITUDES = { 2.35, 2.36, 2.37, -74.00, -74.01, -74.02 };
+
+    private static RNMGLSupercluster build() {
+        return new RNMGLSupercluster(LATITUDES, LONGITUDES, LATITUDES.length, 40, 0, 16);
+    }
+
+    @Test
+    public void nearbyPointsAreClusteredAtLowZoom() {
+        List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+        build().getClusters(-90, -180, 90, 180, 3, clusters);
+
+        assertEquals(2, clusters.size());
+        for (RNMGLSupercluster.Node cluster : clusters) {
+            assertTrue(cluster.isCluster());
+            assertEquals(3, cluster.getPointCount());
+        }
+    }
+
+    @Test
+    public void pointsAreSeparateAboveMaxZoom() {
+        List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+        build().getClusters(-90, -180, 90, 180, 17, clusters);
+
+        assertEquals(LATITUDES.length, clusters.size());
+        for (RNMGLSupercluster.Node node : clusters) {
+            assertFalse(node.isCluster());
+        }
+    }
+
+    @Test
+    public void leavesAreTheClusteredPoints() {
+        RNMGLSupercluster index = build();
+        List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+        index.getClusters(40, 0, 50, 5, 3, clusters);
+        assertEquals(1, clusters.size());
+
+        RNMGLKDBush.IntList leaves = new RNMGLKDBush.IntList();
+        index.getLeaves(clusters.get(0).getClusterId(), leaves);
+        List<Integer> sorted = new ArrayList<>();
+        for (int i = 0; i < leaves.size(); i++) {
+            sorted.add(leaves.get(i));
+        }
+        Collections.sort(sorted);
+        assertEquals(Arrays.asList(0, 1, 2), sorted);
+    }
+
+    @Test
+    public void clusterSplitsAtItsExpansionZoom() {
+        RNMGLSupercluster index = build();
+        List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+        index.getClusters(40, 0, 50, 5, 3, clusters);
+        int expansionZoom = index.getClusterExpansionZoom(clusters.get(0).getClusterId());
+
+        List<RNMGLSupercluster.Node> expanded = new ArrayList<>();
+        index.getClusters(40, 0, 50, 5, expansionZoom, expanded);
+        assertTrue(expanded.size() > 1);
+    }
+
+    @Test
+    public void queryCrossingTheAntimeridianFindsBothSides() {
+        double[] latitudes = { 0, 0 };
+        double[] longitudes = { 179, -179 };
+        RNMGLSupercluster index = new RNMGLSupercluster(latitudes, longitudes, 2, 40, 0, 16);
+
+        List<RNMGLSupercluster.Node> clusters = new ArrayList<>();
+        index.getClusters(-10, 170, 10, 190, 10, clusters);
+        assertEquals(2, clusters.size());
+    }
+
+    @Test
+    public void mercatorProjectionRoundTrips() {
+        assertEquals(45, RNMGLSupercluster.yLat(RNMGLSupercluster.latY(45)), 1e-9);
+        assertEquals(-120, RNMGLSupercluster.xLng(RNMGLSupercluster.lngX(-120)), 1e-9);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mapbox.reactnativemapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RNMGLVertexPyramidTest {
+
+    // A zigzag along the equator that ends with a slight bend
+    private static final double[] COORDINATES = {
+            0, 0,
+            0.5, 1,
+            0, 2,
+            0, 3,
+            0, 4,
+            -0.001, 5,
+            0, 6
+    };
+
+    @Test
+    public void endPointsAreKeptAtEveryLevel() {
+        RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(COORDINATES, 1);
+        for (int level = 0; level <= RNMGLVertexPyramid.MAX_LEVEL; level++) {
+            List<LatLng> points = pyramid.getPoints(level);
+            assertTrue(points.size() >= 2);
+            assertEquals(0, points.get(0).getLongitude(), 0);
+            assertEquals(6, points.get(points.size() - 1).getLongitude(), 0);
+        }
+    }
+
+    @Test
+    public void levelsNest() {
+        RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(COORDINATES, 1);
+        for (int level = 1; level <= RNMGLVertexPyramid.MAX_LEVEL; level++) {
+            List<LatLng> coarse = pyramid.getPoints(level - 1);
+            List<LatLng> fine = pyramid.getPoints(level);
+            assertTrue(fine.size() >= coarse.size());
+            int j = 0;
+            for (LatLng point : coarse) {
+                while (!sameCoordinate(fine.get(j), point)) { j++; }
+            }
+        }
+    }
+
+    @Test
+    public void smallDeviationsAreOnlyKeptAtHighZoom() {
+        RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(COORDINATES, 1);
+        assertFalse(containsLongitude(pyramid.getPoints(0), 5));
+        assertTrue(containsLongitude(pyramid.getPoints(RNMGLVertexPyramid.MAX_LEVEL), 5));
+    }
+
+    @Test
+    public void collinearVerticesAreNeverKept() {
+        RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(new double[] { 0, 0, 0, 1, 0, 2, 0, 3 }, 1);
+        assertEquals(2, pyramid.getPoints(RNMGLVertexPyramid.MAX_LEVEL).size());
+    }
+
+    @Test
+    public void levelForZoomIsClamped() {
+        RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(COORDINATES, 1);
+        assertEquals(0, pyramid.levelForZoom(-1));
+        assertEquals(5, pyramid.levelForZoom(5.9));
+        assertEquals(RNMGLVertexPyramid.MAX_LEVEL, pyramid.levelForZoom(30));
+    }
+
+    @Test
+    public void emptyLineHasNoPoints() {
+        RNMGLVertexPyramid pyramid = new RNMGLVertexPyramid(new double[0], 1);
+        assertEquals(0, pyramid.getVertexCount());
+        assertEquals(0, pyramid.getPoints(10).size());
+    }
+
+    private static boolean containsLongitude(List<LatLng> points, double longitude) {
+        for (LatLng point : points) {
+            if (point.getLongitude() == longitude) { return true; }
+        }
+        return false;
+    }
+
+    private static boolean sameCoordinate(LatLng a, LatLng b) {
+        return a.getLatitude() == b.getLatitude() && a.getLongitude() == b.getLongitude();
+    }
+}
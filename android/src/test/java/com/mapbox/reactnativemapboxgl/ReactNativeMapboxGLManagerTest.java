@@ -0,0 +1,71 @@
+package com.mapbox.reactnativemapboxgl;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class ReactNativeMapboxGLManagerTest {
+
+    private ReactNativeMapboxGLManager manager;
+    private ReactNativeMapboxGLView first;
+    private ReactNativeMapboxGLView second;
+    private ReactNativeMapboxGLManager.ChildListener firstListener;
+    private ReactNativeMapboxGLManager.ChildListener secondListener;
+
+    @Before
+    public void setUp() {
+        manager = new ReactNativeMapboxGLManager(null);
+        first = mock(ReactNativeMapboxGLView.class);
+        second = mock(ReactNativeMapboxGLView.class);
+        firstListener = mock(ReactNativeMapboxGLManager.ChildListener.class);
+        secondListener = mock(ReactNativeMapboxGLManager.ChildListener.class);
+        manager.addChildListener(first, firstListener);
+        manager.addChildListener(second, secondListener);
+    }
+
+    @Test
+    public void childChangesOnlyNotifyTheirOwnParent() {
+        View child = mock(View.class);
+        manager.addView(first, child, 0);
+        manager.removeViewAt(first, 0);
+
+        verify(firstListener).childAdded(child);
+        verify(firstListener).childRemoved(child);
+        verifyZeroInteractions(secondListener);
+    }
+
+    @Test
+    public void childrenAreKeptPerParent() {
+        View firstChild = mock(View.class);
+        View secondChild = mock(View.class);
+        manager.addView(first, firstChild, 0);
+        manager.addView(second, secondChild, 0);
+        manager.removeViewAt(second, 0);
+
+        verify(firstListener).childAdded(firstChild);
+        verify(firstListener, never()).childRemoved(firstChild);
+        verifyNoMoreInteractions(firstListener);
+        verify(secondListener).childAdded(secondChild);
+        verify(secondListener).childRemoved(secondChild);
+        verifyNoMoreInteractions(secondListener);
+        assertEquals(1, manager.getChildCount(first));
+        assertEquals(0, manager.getChildCount(second));
+    }
+
+    @Test
+    public void removedListenersAreNotNotified() {
+        manager.removeChildListener(first, firstListener);
+        manager.addView(first, mock(View.class), 0);
+
+        verifyZeroInteractions(firstListener);
+        verifyZeroInteractions(secondListener);
+    }
+}
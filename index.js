@@ -71,6 +71,54 @@ if (Platform.OS === 'android') {
   });
 }
 
+// Annotation transport
+
+// On Android, the coordinates of large polylines and polygons are sent as a single
+// base64 string of little-endian doubles instead of nested arrays, which the bridge
+// would otherwise serialize and unpack one number at a time.
+const ENCODED_COORDINATES_MIN_LENGTH = 100;
+const BASE64_CHARS = 'ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/';
+
+function encodeCoordinates(coordinates) {
+  const values = new Float64Array(coordinates.length * 2);
+  for (let i = 0; i < coordinates.length; i++) {
+    values[2 * i] = coordinates[i][0];
+    values[2 * i + 1] = coordinates[i][1];
+  }
+
+  const bytes = new Uint8Array(values.buffer);
+  const chars = [];
+  let chunk = [];
+  for (let i = 0; i < bytes.length; i += 3) {
+    const remaining = bytes.length - i;
+    const n = (bytes[i] << 16) | ((remaining > 1 ? bytes[i + 1] : 0) << 8) | (remaining > 2 ? bytes[i + 2] : 0);
+    chunk.push(
+      BASE64_CHARS.charCodeAt((n >> 18) & 63),
+      BASE64_CHARS.charCodeAt((n >> 12) & 63),
+      remaining > 1 ? BASE64_CHARS.charCodeAt((n >> 6) & 63) : 61, // '='
+      remaining > 2 ? BASE64_CHARS.charCodeAt(n & 63) : 61
+    );
+    if (chunk.length >= 8192) {
+      chars.push(String.fromCharCode.apply(null, chunk));
+      chunk = [];
+    }
+  }
+  chars.push(String.fromCharCode.apply(null, chunk));
+  return chars.join('');
+}
+
+function annotationsForNative(annotations) {
+  if (Platform.OS !== 'android') return annotations;
+  return annotations.map(annotation => {
+    if (annotation.type === 'point' || annotation.coordinates.length < ENCODED_COORDINATES_MIN_LENGTH) {
+      return annotation;
+    }
+    const encoded = { ...annotation, encodedCoordinates: encodeCoordinates(annotation.coordinates) };
+    delete encoded.coordinates;
+    return encoded;
+  });
+}
+
 // Metrics
 
 let _metricsEnabled = MapboxGLManager.metricsEnabled;
@@ -107,12 +155,16 @@ function bindCallbackToPromise(callback, promise) {
   }
 }
 
-function initializeOfflinePacks() {
+function initializeOfflinePacks(options = {}) {
   return new Promise((resolve) => {
     NativeAppEventEmitter.addListener('MapboxOfflinePacksLoaded', () => {
       resolve();
     });
-    MapboxGLManager.initializeOfflinePacks();
+    if (Platform.OS === 'android') {
+      MapboxGLManager.initializeOfflinePacks(options);
+    } else {
+      MapboxGLManager.initializeOfflinePacks();
+    }
   });
 }
 
@@ -168,17 +220,42 @@ function setOfflinePackProgressThrottleInterval(milis) {
   MapboxGLManager.setOfflinePackProgressThrottleInterval(milis);
 }
 
+function setOfflinePackMaxConcurrentDownloads(count) {
+  if (Platform.OS !== 'android') return;
+  MapboxGLManager.setOfflinePackMaxConcurrentDownloads(count);
+}
+
+function setOfflinePackDownloadOrder(order) {
+  if (Platform.OS !== 'android') return;
+  MapboxGLManager.setOfflinePackDownloadOrder(order);
+}
+
+function setOfflinePackPriority(packName, priority) {
+  if (Platform.OS !== 'android') return;
+  MapboxGLManager.setOfflinePackPriority(packName, priority);
+}
+
 function addOfflinePackProgressListener(handler) {
-  let _handler = handler;
   if (Platform.OS === 'android') {
-    _handler = (progress) => {
-      if (progress.metadata && typeof progress.metadata !== 'object') {
-        progress.metadata = JSON.parse(progress.metadata).v;
-      }
-      handler(progress);
-    };
+    // Android sends the progress of all packs that changed in one event
+    return NativeAppEventEmitter.addListener('MapboxOfflineProgressBatchDidChange', (batch) => {
+      batch.forEach(progress => {
+        if (progress.metadata && typeof progress.metadata !== 'object') {
+          progress.metadata = JSON.parse(progress.metadata).v;
+        }
+        handler(progress);
+      });
+    });
   }
-  return NativeAppEventEmitter.addListener('MapboxOfflineProgressDidChange', _handler);
+  return NativeAppEventEmitter.addListener('MapboxOfflineProgressDidChange', handler);
+}
+
+function getOfflinePackDebugStats(callback) {
+  const promise = Platform.OS === 'android'
+    ? MapboxGLManager.getOfflinePackDebugStats()
+    : Promise.resolve({});
+  bindCallbackToPromise(callback, promise);
+  return promise;
 }
 
 function addOfflineMaxAllowedTilesListener(handler) {
@@ -205,6 +282,8 @@ class MapView extends Component {
     this._onFinishLoadingMap = this._onFinishLoadingMap.bind(this);
     this._onStartLoadingMap = this._onStartLoadingMap.bind(this);
     this._onLocateUserFailed = this._onLocateUserFailed.bind(this);
+    this._onExpandCluster = this._onExpandCluster.bind(this);
+    this._onCameraChanged = this._onCameraChanged.bind(this);
     this._onNativeComponentMount = this._onNativeComponentMount.bind(this);
   }
 
@@ -254,6 +333,13 @@ class MapView extends Component {
   getPitch(callback) {
     MapboxGLManager.getPitch(findNodeHandle(this), callback);
   }
+  getDebugStats(callback) {
+    if (Platform.OS !== 'android') {
+      callback({});
+      return;
+    }
+    MapboxGLManager.getDebugStats(findNodeHandle(this), callback);
+  }
 
   // Others
   selectAnnotation(annotationId, animated = true) {
@@ -262,6 +348,10 @@ class MapView extends Component {
   deselectAnnotation() {
     MapboxGLManager.deselectAnnotation(findNodeHandle(this));
   }
+  animateAnnotations(moves) {
+    if (Platform.OS !== 'android') return;
+    MapboxGLManager.animateAnnotations(findNodeHandle(this), moves);
+  }
   queryRenderedFeatures(options, callback) {
     // the Android bridge uses a callback, so wrap it in a promise
     if (Platform.OS === 'android') {
@@ -325,6 +415,14 @@ class MapView extends Component {
   _onLocateUserFailed(event: Event) {
     if (this.props.onLocateUserFailed) this.props.onLocateUserFailed(event.nativeEvent.src);
   }
+  _onExpandCluster(event: Event) {
+    if (this.props.onExpandCluster) this.props.onExpandCluster(event.nativeEvent.src);
+  }
+  _onCameraChanged(event: Event) {
+    if (!this.props.onCameraChanged) return;
+    const [latitude, longitude, zoomLevel, direction, pitch] = event.nativeEvent.camera;
+    this.props.onCameraChanged({ latitude, longitude, zoomLevel, direction, pitch });
+  }
 
   static propTypes = {
     ...ViewPropTypes,
@@ -376,6 +474,11 @@ class MapView extends Component {
       })
     })),
     annotationsAreImmutable: PropTypes.bool,
+    annotationsCullingEnabled: PropTypes.bool,
+    annotationsClusteringEnabled: PropTypes.bool,
+    annotationsClusterRadius: PropTypes.number,
+    regionChangeThrottleInterval: PropTypes.number,
+    cameraChangeMaxRate: PropTypes.number,
 
     onRegionDidChange: PropTypes.func,
     onRegionWillChange: PropTypes.func,
@@ -386,6 +489,8 @@ class MapView extends Component {
     onFinishLoadingMap: PropTypes.func,
     onStartLoadingMap: PropTypes.func,
     onLocateUserFailed: PropTypes.func,
+    onExpandCluster: PropTypes.func,
+    onCameraChanged: PropTypes.func,
     onLongPress: PropTypes.func,
     onTap: PropTypes.func,
     onChangeUserTrackingMode: PropTypes.func,
@@ -413,6 +518,11 @@ class MapView extends Component {
     logoIsHidden: false,
     compassIsHidden: false,
     annotationsAreImmutable: false,
+    annotationsCullingEnabled: false,
+    annotationsClusteringEnabled: false,
+    annotationsClusterRadius: 40,
+    regionChangeThrottleInterval: 100,
+    cameraChangeMaxRate: 0,
     annotations: [],
     contentInset: [0, 0, 0, 0]
   };
@@ -443,7 +553,7 @@ class MapView extends Component {
       }
     }
 
-    MapboxGLManager.spliceAnnotations(findNodeHandle(this), false, itemsToRemove, itemsToAdd);
+    MapboxGLManager.spliceAnnotations(findNodeHandle(this), false, itemsToRemove, annotationsForNative(itemsToAdd));
   }
 
   _native = null;
@@ -452,7 +562,7 @@ class MapView extends Component {
     if (this._native === ref) { return; }
     this._native = ref;
 
-    MapboxGLManager.spliceAnnotations(findNodeHandle(this), true, [], this.props.annotations);
+    MapboxGLManager.spliceAnnotations(findNodeHandle(this), true, [], annotationsForNative(this.props.annotations));
 
     const isImmutable = this.props.annotationsAreImmutable;
 
@@ -479,6 +589,7 @@ class MapView extends Component {
         onRegionWillChange={this._onRegionWillChange}
         enableOnRegionDidChange={!!this.props.onRegionDidChange}
         enableOnRegionWillChange={!!this.props.onRegionWillChange}
+        enableOnCameraChanged={!!this.props.onCameraChanged}
         onOpenAnnotation={this._onOpenAnnotation}
         onCloseAnnotation={this._onCloseAnnotation}
         onRightAnnotationTapped={this._onRightAnnotationTapped}
@@ -488,6 +599,8 @@ class MapView extends Component {
         onFinishLoadingMap={this._onFinishLoadingMap}
         onStartLoadingMap={this._onStartLoadingMap}
         onLocateUserFailed={this._onLocateUserFailed}
+        onExpandCluster={this._onExpandCluster}
+        onCameraChanged={this._onCameraChanged}
         onChangeUserTrackingMode={this._onChangeUserTrackingMode}
       />
     );
@@ -498,7 +611,8 @@ const MapboxGLView = requireNativeComponent('RCTMapboxGL', MapView, {
   nativeOnly: {
     onChange: true,
     enableOnRegionDidChange: true,
-    enableOnRegionWillChange: true
+    enableOnRegionWillChange: true,
+    enableOnCameraChanged: true
   }
 });
 
@@ -518,7 +632,11 @@ const Mapbox = {
   addOfflinePackProgressListener,
   addOfflineMaxAllowedTilesListener,
   addOfflineErrorListener,
-  setOfflinePackProgressThrottleInterval
+  setOfflinePackProgressThrottleInterval,
+  setOfflinePackMaxConcurrentDownloads,
+  setOfflinePackDownloadOrder,
+  setOfflinePackPriority,
+  getOfflinePackDebugStats
 };
 
 module.exports = Mapbox;